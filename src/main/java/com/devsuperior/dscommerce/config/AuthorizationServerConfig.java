@@ -6,26 +6,37 @@ import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
 import org.springframework.security.oauth2.core.OAuth2Token;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.authentication.ClientSecretAuthenticationProvider;
 import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
 import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
@@ -40,21 +51,40 @@ import org.springframework.security.oauth2.server.authorization.token.Delegating
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
 import org.springframework.security.oauth2.server.authorization.token.JwtGenerator;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2AccessTokenGenerator;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2RefreshTokenGenerator;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.security.web.SecurityFilterChain;
 
+import com.devsuperior.dscommerce.config.customgrant.BoundedPasswordEncoder;
+import com.devsuperior.dscommerce.config.customgrant.ClientSecretEncoder;
 import com.devsuperior.dscommerce.config.customgrant.CustomPasswordAuthenticationConverter;
 import com.devsuperior.dscommerce.config.customgrant.CustomPasswordAuthenticationProvider;
 import com.devsuperior.dscommerce.config.customgrant.CustomUserAuthorities;
+import com.devsuperior.dscommerce.config.customgrant.ExpiringOAuth2AuthorizationService;
+import com.devsuperior.dscommerce.config.customgrant.LoginAttemptThrottle;
+import com.devsuperior.dscommerce.config.customgrant.LoginErrorResponseHandler;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 
 @Configuration
 public class AuthorizationServerConfig {
 
+	private static final Logger logger = LoggerFactory.getLogger(AuthorizationServerConfig.class);
+
+	private static final String BCRYPT = "bcrypt";
+
 	@Value("${security.client-id}")
 	private String clientId;
 
@@ -64,9 +94,53 @@ public class AuthorizationServerConfig {
 	@Value("${security.jwt.duration}")
 	private Integer jwtDurationSeconds;
 
+	@Value("${security.jwt.refresh-duration}")
+	private Integer refreshTokenDurationSeconds;
+
+	@Value("${security.authorization-store.max-size}")
+	private Long authorizationStoreMaxSize;
+
+	@Value("${security.jwt.jwk-set}")
+	private Resource jwkSetResource;
+
+	@Value("${security.jwt.signing-key-id}")
+	private String signingKeyId;
+
+	@Value("${security.jwt.algorithm}")
+	private String algorithm;
+
+	@Value("${security.jwt.decoder-cache.max-size}")
+	private Long decoderCacheMaxSize;
+
+	@Value("${security.login.hash-threads}")
+	private Integer loginHashThreads;
+
+	@Value("${security.login.queue-capacity}")
+	private Integer loginQueueCapacity;
+
+	@Value("${security.login.hash-timeout}")
+	private Long loginHashTimeout;
+
+	@Value("${security.login.max-failures}")
+	private Integer loginMaxFailures;
+
+	@Value("${security.login.failure-window}")
+	private Long loginFailureWindow;
+
+	@Value("${security.password.bcrypt-strength}")
+	private Integer bcryptStrength;
+
+	@Value("${security.password.target-verify-time}")
+	private Long passwordTargetVerifyTime;
+
+	private final ClientSecretEncoder clientSecretEncoder = new ClientSecretEncoder();
+
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Autowired
+	private UserDetailsPasswordService userDetailsPasswordService;
+
 	@Bean
 	@Order(2)
 	public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -74,10 +148,17 @@ public class AuthorizationServerConfig {
 		OAuth2AuthorizationServerConfiguration.applyDefaultSecurity(http);
 
 		// @formatter:off
+		LoginErrorResponseHandler errorResponseHandler = new LoginErrorResponseHandler();
 		http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
+			.clientAuthentication(clientAuthentication -> clientAuthentication
+				.authenticationProviders(providers -> providers.stream()
+					.filter(ClientSecretAuthenticationProvider.class::isInstance)
+					.forEach(provider -> ((ClientSecretAuthenticationProvider) provider).setPasswordEncoder(clientSecretEncoder)))
+				.errorResponseHandler(errorResponseHandler))
 			.tokenEndpoint(tokenEndpoint -> tokenEndpoint
 				.accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder())));
+				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, userDetailsPasswordService, passwordEncoder(), loginAttemptThrottle()))
+				.errorResponseHandler(errorResponseHandler));
 
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		// @formatter:on
@@ -87,7 +168,7 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public OAuth2AuthorizationService authorizationService() {
-		return new InMemoryOAuth2AuthorizationService();
+		return new ExpiringOAuth2AuthorizationService(authorizationStoreMaxSize, Duration.ofSeconds(jwtDurationSeconds));
 	}
 
 	@Bean
@@ -97,7 +178,24 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		int strength = bcryptStrength;
+		if (strength <= 0) {
+			strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(passwordTargetVerifyTime));
+			logger.info("Calibrated BCrypt strength {} for a {} ms verify target", strength, passwordTargetVerifyTime);
+		}
+		DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+		encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+		// 0 leaves half the CPUs to request handling while a login burst hashes
+		int threads = loginHashThreads > 0 ? loginHashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		long verifyMillis = Math.max(1, BCryptStrengthCalibrator.verifyTime(strength).toMillis());
+		logger.info("Password hashing on {} thread(s) at BCrypt strength {} (~{} ms per verify): about {} logins/s per node",
+				threads, strength, verifyMillis, threads * 1000 / verifyMillis);
+		return new BoundedPasswordEncoder(encoder, threads, loginQueueCapacity, Duration.ofMillis(loginHashTimeout));
+	}
+
+	@Bean
+	public LoginAttemptThrottle loginAttemptThrottle() {
+		return new LoginAttemptThrottle(loginMaxFailures, Duration.ofMillis(loginFailureWindow));
 	}
 
 	@Bean
@@ -106,10 +204,11 @@ public class AuthorizationServerConfig {
 		RegisteredClient registeredClient = RegisteredClient
 			.withId(UUID.randomUUID().toString())
 			.clientId(clientId)
-			.clientSecret(passwordEncoder().encode(clientSecret))
+			.clientSecret(clientSecretEncoder.encode(clientSecret))
 			.scope("read")
 			.scope("write")
 			.authorizationGrantType(new AuthorizationGrantType("password"))
+			.authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
 			.tokenSettings(tokenSettings())
 			.clientSettings(clientSettings())
 			.build();
@@ -124,6 +223,8 @@ public class AuthorizationServerConfig {
 		return TokenSettings.builder()
 			.accessTokenFormat(OAuth2TokenFormat.SELF_CONTAINED)
 			.accessTokenTimeToLive(Duration.ofSeconds(jwtDurationSeconds))
+			.refreshTokenTimeToLive(Duration.ofSeconds(refreshTokenDurationSeconds))
+			.reuseRefreshTokens(false)
 			.build();
 		// @formatter:on
 	}
@@ -140,11 +241,12 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator() {
-		NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(jwkSource());
+		NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey())));
 		JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
 		jwtGenerator.setJwtCustomizer(tokenCustomizer());
 		OAuth2AccessTokenGenerator accessTokenGenerator = new OAuth2AccessTokenGenerator();
-		return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator);
+		OAuth2RefreshTokenGenerator refreshTokenGenerator = new OAuth2RefreshTokenGenerator();
+		return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator, refreshTokenGenerator);
 	}
 
 	@Bean
@@ -152,6 +254,10 @@ public class AuthorizationServerConfig {
 		return context -> {
 			OAuth2ClientAuthenticationToken principal = context.getPrincipal();
 			CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
+			if (AuthorizationGrantType.REFRESH_TOKEN.equals(context.getAuthorizationGrantType())) {
+				user = reloadUser(user);
+			}
+			context.getJwsHeader().algorithm(signatureAlgorithm());
 			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
 			if (context.getTokenType().getValue().equals("access_token")) {
 				// @formatter:off
@@ -159,20 +265,59 @@ public class AuthorizationServerConfig {
 					.claim("authorities", authorities)
 					.claim("username", user.getUsername());
 				// @formatter:on
+				if (user.getUserId() != null) {
+					context.getClaims().claim(CustomUserUtil.USER_ID_CLAIM, user.getUserId());
+				}
 			}
 		};
 	}
 
+	/**
+	 * Refresh re-reads the user so a refreshed token carries the current roles
+	 * and a deleted or disabled user cannot keep a session alive by refreshing.
+	 */
+	private CustomUserAuthorities reloadUser(CustomUserAuthorities user) {
+		UserDetails details;
+		try {
+			details = userDetailsService.loadUserByUsername(user.getUsername());
+		} catch (UsernameNotFoundException e) {
+			throw new OAuth2AuthenticationException(OAuth2ErrorCodes.INVALID_GRANT);
+		}
+		if (!details.isEnabled() || !details.isAccountNonLocked()) {
+			throw new OAuth2AuthenticationException(OAuth2ErrorCodes.INVALID_GRANT);
+		}
+		return new CustomUserAuthorities(user.getUserId(), user.getUsername(), details.getAuthorities());
+	}
+
 	@Bean
-	public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
-		return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+	public CachingJwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
+		DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JwkSetLoader.verificationAlgorithms(jwkSet()), jwkSource));
+		return new CachingJwtDecoder(new NimbusJwtDecoder(jwtProcessor), decoderCacheMaxSize);
 	}
 
 	@Bean
 	public JWKSource<SecurityContext> jwkSource() {
-		RSAKey rsaKey = generateRsa();
-		JWKSet jwkSet = new JWKSet(rsaKey);
-		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+		return new ImmutableJWKSet<>(jwkSet());
+	}
+
+	@Bean
+	public JWKSet jwkSet() {
+		if (jwkSetResource == null) {
+			logger.warn("security.jwt.jwk-set is not set; signing with an ephemeral key that other nodes cannot verify");
+			return new JWKSet(signatureAlgorithm() == SignatureAlgorithm.ES256 ? generateEc() : generateRsa());
+		}
+		JWKSet jwkSet = JwkSetLoader.load(jwkSetResource);
+		logger.info("Loaded {} JWK(s) from {}", jwkSet.getKeys().size(), jwkSetResource);
+		return jwkSet;
+	}
+
+	private JWK signingKey() {
+		return JwkSetLoader.signingKey(jwkSet(), signingKeyId, signatureAlgorithm());
+	}
+
+	private SignatureAlgorithm signatureAlgorithm() {
+		return JwkSetLoader.algorithm(algorithm);
 	}
 
 	private static RSAKey generateRsa() {
@@ -182,6 +327,14 @@ public class AuthorizationServerConfig {
 		return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(UUID.randomUUID().toString()).build();
 	}
 
+	private static ECKey generateEc() {
+		try {
+			return new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).generate();
+		} catch (JOSEException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 	private static KeyPair generateRsaKey() {
 		KeyPair keyPair;
 		try {
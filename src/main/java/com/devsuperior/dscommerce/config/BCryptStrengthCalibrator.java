@@ -0,0 +1,59 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt cost whose verify time is closest to, without exceeding,
+ * a target on the current hardware. Each cost step doubles the work, so one
+ * cheap measurement at {@link #PROBE_STRENGTH} is enough to extrapolate. The
+ * result never goes below {@link #MIN_STRENGTH}. The same extrapolation gives
+ * the expected verify time of a given cost, from which the login capacity of a
+ * node follows: hashing threads divided by the verify time.
+ */
+public final class BCryptStrengthCalibrator {
+
+	public static final int MIN_STRENGTH = 10;
+	public static final int MAX_STRENGTH = 16;
+
+	private static final int PROBE_STRENGTH = 6;
+	private static final int SAMPLES = 5;
+
+	private BCryptStrengthCalibrator() {
+	}
+
+	public static int calibrate(Duration target) {
+		return strengthFor(target, measure(PROBE_STRENGTH));
+	}
+
+	public static Duration verifyTime(int strength) {
+		return Duration.ofNanos(verifyNanosFor(strength, measure(PROBE_STRENGTH)));
+	}
+
+	static long verifyNanosFor(int strength, long probeNanos) {
+		return probeNanos << (strength - PROBE_STRENGTH);
+	}
+
+	static int strengthFor(Duration target, long probeNanos) {
+		int strength = MIN_STRENGTH;
+		while (strength < MAX_STRENGTH && verifyNanosFor(strength + 1, probeNanos) <= target.toNanos()) {
+			strength++;
+		}
+		return strength;
+	}
+
+	private static long measure(int strength) {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+		String hash = encoder.encode("calibration");
+		long[] samples = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			long start = System.nanoTime();
+			encoder.matches("calibration", hash);
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return samples[SAMPLES / 2];
+	}
+}
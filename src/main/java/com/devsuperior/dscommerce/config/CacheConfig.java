@@ -0,0 +1,66 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Caffeine caches with their own size and TTL bounds. Caching advice runs
+ * outside the transaction advice, so a hit never opens a transaction and an
+ * eviction happens only after the write has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+	public static final String PRODUCTS = "products";
+	public static final String PRODUCT_COUNTS = "productCounts";
+	public static final String USER_DETAILS = "userDetails";
+
+	@Value("${product.cache.max-size}")
+	private long productsMaxSize;
+
+	@Value("${product.cache.ttl}")
+	private long productsTtl;
+
+	@Value("${product.count.cache-max-entries}")
+	private long productCountsMaxSize;
+
+	@Value("${product.count.cache-ttl}")
+	private long productCountsTtl;
+
+	@Value("${security.user-cache.max-size}")
+	private long userDetailsMaxSize;
+
+	@Value("${security.user-cache.ttl}")
+	private long userDetailsTtl;
+
+	@Bean
+	public CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.registerCustomCache(PRODUCTS, Caffeine.newBuilder()
+				.maximumSize(productsMaxSize)
+				.expireAfterWrite(Duration.ofMillis(productsTtl))
+				.recordStats()
+				.build());
+		cacheManager.registerCustomCache(PRODUCT_COUNTS, Caffeine.newBuilder()
+				.maximumSize(productCountsMaxSize)
+				.expireAfterWrite(Duration.ofMillis(productCountsTtl))
+				.recordStats()
+				.build());
+		cacheManager.registerCustomCache(USER_DETAILS, Caffeine.newBuilder()
+				.maximumSize(userDetailsMaxSize)
+				.expireAfterWrite(Duration.ofMillis(userDetailsTtl))
+				.recordStats()
+				.build());
+		return cacheManager;
+	}
+}
@@ -0,0 +1,119 @@
+package com.devsuperior.dscommerce.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * {@link JwtDecoder} that remembers tokens the delegate has already verified,
+ * so a client resending the same bearer token skips parsing and the signature
+ * check. Entries are keyed by the SHA-256 digest of the token and expire at the
+ * token's {@code exp}; tokens without {@code exp} and tokens that fail
+ * verification are never cached. The cache's ticker reads the same wall clock
+ * the expiry is measured against, so both agree on when a token expires.
+ * Registered as a bean, the cache statistics are published as
+ * {@code cache.*} meters tagged {@code cache=jwtDecoder}.
+ */
+public class CachingJwtDecoder implements JwtDecoder, MeterBinder {
+
+	private static final String CACHE_NAME = "jwtDecoder";
+
+	private final JwtDecoder delegate;
+	private final Cache<String, Jwt> verified;
+
+	public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+		this(delegate, maximumSize, Clock.systemUTC());
+	}
+
+	CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Clock clock) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.notNull(clock, "clock cannot be null");
+		Ticker ticker = () -> epochNanos(clock.instant());
+		this.delegate = delegate;
+		this.verified = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new TokenExpiry())
+				.ticker(ticker)
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public Jwt decode(String token) throws JwtException {
+		String key = digest(token);
+		Jwt jwt = verified.getIfPresent(key);
+		if (jwt != null) {
+			return jwt;
+		}
+		jwt = delegate.decode(token);
+		if (jwt.getExpiresAt() != null) {
+			verified.put(key, jwt);
+		}
+		return jwt;
+	}
+
+	public long size() {
+		verified.cleanUp();
+		return verified.estimatedSize();
+	}
+
+	public double hitRate() {
+		return verified.stats().hitRate();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, verified, CACHE_NAME);
+	}
+
+	private static long epochNanos(Instant instant) {
+		return ChronoUnit.NANOS.between(Instant.EPOCH, instant);
+	}
+
+	private static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(hash);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class TokenExpiry implements Expiry<String, Jwt> {
+
+		@Override
+		public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+			return Math.max(0, epochNanos(jwt.getExpiresAt()) - currentTime);
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, jwt, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
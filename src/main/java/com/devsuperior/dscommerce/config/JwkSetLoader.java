@@ -0,0 +1,108 @@
+package com.devsuperior.dscommerce.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.util.StreamUtils;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+/**
+ * Reads the authorization server keys from a JWK Set document (RFC 7517). The
+ * set may hold several keys: every key verifies tokens, so retired keys stay
+ * in the file, public part only, until the tokens they signed have expired.
+ * Exactly one key, with its private part, signs new tokens.
+ * <p>
+ * Supported signing algorithms are RS256 (RSA keys) and ES256 (EC keys on the
+ * P-256 curve).
+ */
+public final class JwkSetLoader {
+
+	private JwkSetLoader() {
+	}
+
+	public static JWKSet load(Resource resource) {
+		try (InputStream in = resource.getInputStream()) {
+			JWKSet jwkSet = JWKSet.parse(StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+			if (jwkSet.getKeys().isEmpty()) {
+				throw new IllegalStateException("JWK set " + resource + " has no keys");
+			}
+			return jwkSet;
+		}
+		catch (IOException | ParseException e) {
+			throw new IllegalStateException("Unable to read JWK set " + resource, e);
+		}
+	}
+
+	public static SignatureAlgorithm algorithm(String name) {
+		SignatureAlgorithm algorithm = SignatureAlgorithm.from(name);
+		if (algorithm != SignatureAlgorithm.RS256 && algorithm != SignatureAlgorithm.ES256) {
+			throw new IllegalStateException("Unsupported JWT signing algorithm: " + name);
+		}
+		return algorithm;
+	}
+
+	/**
+	 * Returns the key with id {@code keyId}, or the first private key in the
+	 * set that can sign with {@code algorithm} when no id is given.
+	 */
+	public static JWK signingKey(JWKSet jwkSet, String keyId, SignatureAlgorithm algorithm) {
+		JWK key;
+		if (keyId == null || keyId.isBlank()) {
+			key = jwkSet.getKeys().stream().filter(k -> k.isPrivate() && supports(k, algorithm)).findFirst().orElseThrow(
+					() -> new IllegalStateException("JWK set has no private key to sign with " + algorithm.getName()));
+		}
+		else {
+			key = jwkSet.getKeyByKeyId(keyId);
+			if (key == null) {
+				throw new IllegalStateException("Signing key " + keyId + " not found in JWK set");
+			}
+		}
+		if (!key.isPrivate()) {
+			throw new IllegalStateException("Signing key " + key.getKeyID() + " has no private part");
+		}
+		if (!supports(key, algorithm)) {
+			throw new IllegalStateException("Signing key " + key.getKeyID() + " cannot sign with " + algorithm.getName());
+		}
+		if (key.getKeyID() == null) {
+			throw new IllegalStateException("Signing key must have a kid");
+		}
+		return key;
+	}
+
+	/**
+	 * Algorithms a resource server should accept for tokens signed by the keys
+	 * in the set, so tokens issued before a switch of algorithm stay valid.
+	 */
+	public static Set<JWSAlgorithm> verificationAlgorithms(JWKSet jwkSet) {
+		Set<JWSAlgorithm> algorithms = new LinkedHashSet<>();
+		for (JWK key : jwkSet.getKeys()) {
+			if (supports(key, SignatureAlgorithm.RS256)) {
+				algorithms.add(JWSAlgorithm.RS256);
+			}
+			else if (supports(key, SignatureAlgorithm.ES256)) {
+				algorithms.add(JWSAlgorithm.ES256);
+			}
+		}
+		return algorithms;
+	}
+
+	private static boolean supports(JWK key, SignatureAlgorithm algorithm) {
+		return switch (algorithm) {
+			case RS256 -> key instanceof RSAKey;
+			case ES256 -> key instanceof ECKey ecKey && Curve.P_256.equals(ecKey.getCurve());
+			default -> false;
+		};
+	}
+}
@@ -0,0 +1,105 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.util.Assert;
+
+/**
+ * {@link PasswordEncoder} that runs {@link #matches} and {@link #encode} on a
+ * small dedicated pool so password hashing can never use more than
+ * {@code threads} CPUs. At most {@code queueCapacity} hashes wait for a thread;
+ * beyond that, or when one waits longer than {@code timeout}, the call fails at
+ * once with {@code temporarily_unavailable} instead of holding a request
+ * thread.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Duration timeout;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.isTrue(threads > 0, "threads must be greater than 0");
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than 0");
+		Assert.notNull(timeout, "timeout cannot be null");
+		this.delegate = delegate;
+		this.timeout = timeout;
+		AtomicInteger count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	public int queued() {
+		return executor.getQueue().size();
+	}
+
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private <T> T run(Callable<T> hash) {
+		Future<T> result;
+		try {
+			result = executor.submit(hash);
+		}
+		catch (RejectedExecutionException e) {
+			throw unavailable();
+		}
+		try {
+			return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			result.cancel(true);
+			throw unavailable();
+		}
+		catch (InterruptedException e) {
+			result.cancel(true);
+			Thread.currentThread().interrupt();
+			throw unavailable();
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static OAuth2AuthenticationException unavailable() {
+		return new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE,
+				"Too many concurrent logins, try again shortly", null));
+	}
+}
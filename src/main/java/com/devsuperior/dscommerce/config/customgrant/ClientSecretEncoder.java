@@ -0,0 +1,46 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Compares client secrets by their SHA-256 digest in constant time. The secret
+ * is read in plain text from configuration, so a slow hash on the in-memory
+ * copy adds no protection; it only added a BCrypt round to every token
+ * request, refresh grants included. User passwords keep the BCrypt encoder.
+ */
+public class ClientSecretEncoder implements PasswordEncoder {
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return HexFormat.of().formatHex(digest(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		if (rawPassword == null || encodedPassword == null) {
+			return false;
+		}
+		byte[] expected;
+		try {
+			expected = HexFormat.of().parseHex(encodedPassword);
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+		return MessageDigest.isEqual(digest(rawPassword), expected);
+	}
+
+	private static byte[] digest(CharSequence rawPassword) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
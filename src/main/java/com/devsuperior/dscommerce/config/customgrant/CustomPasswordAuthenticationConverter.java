@@ -69,7 +69,8 @@ public class CustomPasswordAuthenticationConverter implements AuthenticationConv
 		});
 		
 		Authentication clientPrincipal = SecurityContextHolder.getContext().getAuthentication();	
-		return new CustomPasswordAuthenticationToken(clientPrincipal, requestedScopes, additionalParameters);
+		return new CustomPasswordAuthenticationToken(clientPrincipal, requestedScopes, additionalParameters,
+				request.getRemoteAddr());
 	}
 
 	private static MultiValueMap<String, String> getParameters(HttpServletRequest request) {
@@ -1,15 +1,16 @@
 package com.devsuperior.dscommerce.config.customgrant;
 
 import java.security.Principal;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +20,7 @@ import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
@@ -32,29 +34,37 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Toke
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.util.Assert;
 
+import com.devsuperior.dscommerce.entities.User;
+
 public class CustomPasswordAuthenticationProvider implements AuthenticationProvider {
 
+	private static final Logger logger = LoggerFactory.getLogger(CustomPasswordAuthenticationProvider.class);
 	private static final String ERROR_URI = "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
 	private final OAuth2AuthorizationService authorizationService;
 	private final UserDetailsService userDetailsService;
+	private final UserDetailsPasswordService userDetailsPasswordService;
 	private final OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator;
 	private final PasswordEncoder passwordEncoder;
-	private String username = "";
-	private String password = "";
-	private Set<String> authorizedScopes = new HashSet<>();
+	private final LoginAttemptThrottle loginAttemptThrottle;
 
 	public CustomPasswordAuthenticationProvider(OAuth2AuthorizationService authorizationService,
 			OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator, 
-			UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+			UserDetailsService userDetailsService, UserDetailsPasswordService userDetailsPasswordService,
+			PasswordEncoder passwordEncoder,
+			LoginAttemptThrottle loginAttemptThrottle) {
 		
 		Assert.notNull(authorizationService, "authorizationService cannot be null");
 		Assert.notNull(tokenGenerator, "TokenGenerator cannot be null");
 		Assert.notNull(userDetailsService, "UserDetailsService cannot be null");
+		Assert.notNull(userDetailsPasswordService, "UserDetailsPasswordService cannot be null");
 		Assert.notNull(passwordEncoder, "PasswordEncoder cannot be null");
+		Assert.notNull(loginAttemptThrottle, "LoginAttemptThrottle cannot be null");
 		this.authorizationService = authorizationService;
 		this.tokenGenerator = tokenGenerator;
 		this.userDetailsService = userDetailsService;
+		this.userDetailsPasswordService = userDetailsPasswordService;
 		this.passwordEncoder = passwordEncoder;
+		this.loginAttemptThrottle = loginAttemptThrottle;
 	}
 	
 	@Override
@@ -63,33 +73,38 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		CustomPasswordAuthenticationToken customPasswordAuthenticationToken = (CustomPasswordAuthenticationToken) authentication;
 		OAuth2ClientAuthenticationToken clientPrincipal = getAuthenticatedClientElseThrowInvalidClient(customPasswordAuthenticationToken);
 		RegisteredClient registeredClient = clientPrincipal.getRegisteredClient();
-		username = customPasswordAuthenticationToken.getUsername();
-		password = customPasswordAuthenticationToken.getPassword();	
+		String username = customPasswordAuthenticationToken.getUsername();
+		String password = customPasswordAuthenticationToken.getPassword();
+		String clientAddress = customPasswordAuthenticationToken.getClientAddress();
+		
+		loginAttemptThrottle.checkAllowed(username, clientAddress);
 		
 		UserDetails user = null;
 		try {
 			user = userDetailsService.loadUserByUsername(username);
 		} catch (UsernameNotFoundException e) {
+			loginAttemptThrottle.recordFailure(username, clientAddress);
 			throw new OAuth2AuthenticationException("Invalid credentials");
 		}
 				
 		if (!passwordEncoder.matches(password, user.getPassword()) || !user.getUsername().equals(username)) {
+			loginAttemptThrottle.recordFailure(username, clientAddress);
 			throw new OAuth2AuthenticationException("Invalid credentials");
 		}
+		loginAttemptThrottle.recordSuccess(username, clientAddress);
+		
+		if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+			upgradePassword(user, password);
+		}
 		
-		authorizedScopes = user.getAuthorities().stream()
+		Set<String> authorizedScopes = user.getAuthorities().stream()
 				.map(scope -> scope.getAuthority())
 				.filter(scope -> registeredClient.getScopes().contains(scope))
-				.collect(Collectors.toSet());
-		
-		//-----------Create a new Security Context Holder Context----------
-		OAuth2ClientAuthenticationToken oAuth2ClientAuthenticationToken = (OAuth2ClientAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-		CustomUserAuthorities customPasswordUser = new CustomUserAuthorities(username, user.getAuthorities());
-		oAuth2ClientAuthenticationToken.setDetails(customPasswordUser);
+				.collect(Collectors.toUnmodifiableSet());
 		
-		var newcontext = SecurityContextHolder.createEmptyContext();
-		newcontext.setAuthentication(oAuth2ClientAuthenticationToken);
-		SecurityContextHolder.setContext(newcontext);		
+		//-----------Attach the user to this request's client principal----------
+		Long userId = (user instanceof User entity) ? entity.getId() : null;
+		clientPrincipal.setDetails(new CustomUserAuthorities(userId, username, user.getAuthorities()));
 		
 		//-----------TOKEN BUILDERS----------
 		DefaultOAuth2TokenContext.Builder tokenContextBuilder = DefaultOAuth2TokenContext.builder()
@@ -124,11 +139,39 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		} else {
 			authorizationBuilder.accessToken(accessToken);
 		}
+
+		//-----------REFRESH TOKEN----------
+		// Refresh re-reads the user's roles through the token customizer but
+		// skips the password check until the next password grant.
+		OAuth2RefreshToken refreshToken = null;
+		if (registeredClient.getAuthorizationGrantTypes().contains(AuthorizationGrantType.REFRESH_TOKEN)) {
+			tokenContext = tokenContextBuilder.tokenType(OAuth2TokenType.REFRESH_TOKEN).build();
+			OAuth2Token generatedRefreshToken = this.tokenGenerator.generate(tokenContext);
+			if (!(generatedRefreshToken instanceof OAuth2RefreshToken)) {
+				OAuth2Error error = new OAuth2Error(OAuth2ErrorCodes.SERVER_ERROR,
+						"The token generator failed to generate the refresh token.", ERROR_URI);
+				throw new OAuth2AuthenticationException(error);
+			}
+			refreshToken = (OAuth2RefreshToken) generatedRefreshToken;
+			authorizationBuilder.refreshToken(refreshToken);
+		}
 				
 		OAuth2Authorization authorization = authorizationBuilder.build();
 		this.authorizationService.save(authorization);
 		
-		return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken);
+		return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken, refreshToken);
+	}
+
+	/**
+	 * Re-hashes a password stored with an outdated encoding or cost. A failure
+	 * here must not fail the login; the upgrade is retried on the next one.
+	 */
+	private void upgradePassword(UserDetails user, String password) {
+		try {
+			userDetailsPasswordService.updatePassword(user, passwordEncoder.encode(password));
+		} catch (RuntimeException e) {
+			logger.warn("Could not upgrade password hash for {}: {}", user.getUsername(), e.getMessage());
+		}
 	}
 
 	@Override
@@ -17,9 +17,11 @@ public class CustomPasswordAuthenticationToken extends OAuth2AuthorizationGrantA
 	private final String username;
 	private final String password;
 	private final Set<String> scopes;
+	private final String clientAddress;
 	
 	public CustomPasswordAuthenticationToken(Authentication clientPrincipal,
-			@Nullable Set<String> scopes, @Nullable Map<String, Object> additionalParameters) {
+			@Nullable Set<String> scopes, @Nullable Map<String, Object> additionalParameters,
+			@Nullable String clientAddress) {
 		
 		super(new AuthorizationGrantType("password"), clientPrincipal, additionalParameters);
 		
@@ -27,6 +29,7 @@ public class CustomPasswordAuthenticationToken extends OAuth2AuthorizationGrantA
 		this.password = (String) additionalParameters.get("password");
 		this.scopes = Collections.unmodifiableSet(
 				scopes != null ? new HashSet<>(scopes) : Collections.emptySet());
+		this.clientAddress = clientAddress;
 	}
 
 	public String getUsername() {
@@ -40,4 +43,8 @@ public class CustomPasswordAuthenticationToken extends OAuth2AuthorizationGrantA
 	public Set<String> getScopes() {
 		return this.scopes;
 	}
+
+	public String getClientAddress() {
+		return this.clientAddress;
+	}
 }
@@ -1,17 +1,24 @@
 package com.devsuperior.dscommerce.config.customgrant;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.springframework.security.core.GrantedAuthority;
 
 public class CustomUserAuthorities {
 
-	private String username;
-	private Collection<? extends GrantedAuthority> authorities;
+	private final Long userId;
+	private final String username;
+	private final Collection<? extends GrantedAuthority> authorities;
 
-	public CustomUserAuthorities(String username, Collection<? extends GrantedAuthority> authorities) {
+	public CustomUserAuthorities(Long userId, String username, Collection<? extends GrantedAuthority> authorities) {
+		this.userId = userId;
 		this.username = username;
-		this.authorities = authorities;
+		this.authorities = List.copyOf(authorities);
+	}
+
+	public Long getUserId() {
+		return userId;
 	}
 
 	public String getUsername() {
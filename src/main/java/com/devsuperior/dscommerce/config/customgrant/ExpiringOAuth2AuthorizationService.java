@@ -0,0 +1,199 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2DeviceCode;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.OAuth2UserCode;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * In-memory {@link OAuth2AuthorizationService} with a capacity limit and
+ * per-entry expiry. An authorization is dropped once its last token expires,
+ * or after {@code defaultTimeToLive} when it holds no expiring token. When the
+ * store is full the least valuable entries are evicted first.
+ * <p>
+ * A token value index answers {@link #findByToken} without scanning and is
+ * cleaned up synchronously whenever an authorization leaves the store.
+ * <p>
+ * The store lives in this node's memory, and refresh tokens are only valid
+ * while their authorization is in it. A refresh sent to another node, after a
+ * restart, or after the entry was evicted for capacity fails with
+ * {@code invalid_grant}, and the client has to log in again. Running several
+ * nodes therefore needs sticky routing of {@code /oauth2/token}, or a shared
+ * store such as {@code JdbcOAuth2AuthorizationService} instead of this class.
+ */
+public class ExpiringOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+	private static final List<Class<? extends OAuth2Token>> TOKEN_CLASSES = List.of(OAuth2AuthorizationCode.class,
+			OAuth2AccessToken.class, OAuth2RefreshToken.class, OidcIdToken.class, OAuth2UserCode.class,
+			OAuth2DeviceCode.class);
+
+	private final Duration defaultTimeToLive;
+	private final Cache<String, OAuth2Authorization> authorizations;
+	private final Map<String, String> idsByToken = new ConcurrentHashMap<>();
+
+	public ExpiringOAuth2AuthorizationService(long maximumSize, Duration defaultTimeToLive) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.notNull(defaultTimeToLive, "defaultTimeToLive cannot be null");
+		this.defaultTimeToLive = defaultTimeToLive;
+		this.authorizations = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new AuthorizationExpiry())
+				.executor(Runnable::run)
+				.evictionListener(this::unindex)
+				.build();
+	}
+
+	@Override
+	public void save(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		String id = authorization.getId();
+		List<String> tokens = tokenValues(authorization);
+		tokens.forEach(token -> idsByToken.put(token, id));
+		OAuth2Authorization previous = authorizations.asMap().put(id, authorization);
+		if (previous != null) {
+			tokenValues(previous).stream()
+					.filter(token -> !tokens.contains(token))
+					.forEach(token -> idsByToken.remove(token, id));
+		}
+	}
+
+	@Override
+	public void remove(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		OAuth2Authorization removed = authorizations.asMap().remove(authorization.getId());
+		if (removed != null) {
+			unindex(removed.getId(), removed, RemovalCause.EXPLICIT);
+		}
+	}
+
+	@Nullable
+	@Override
+	public OAuth2Authorization findById(String id) {
+		Assert.hasText(id, "id cannot be empty");
+		return authorizations.getIfPresent(id);
+	}
+
+	@Nullable
+	@Override
+	public OAuth2Authorization findByToken(String token, @Nullable OAuth2TokenType tokenType) {
+		Assert.hasText(token, "token cannot be empty");
+		String id = idsByToken.get(token);
+		if (id == null) {
+			return null;
+		}
+		OAuth2Authorization authorization = authorizations.getIfPresent(id);
+		if (authorization == null || !hasToken(authorization, token, tokenType)) {
+			return null;
+		}
+		return authorization;
+	}
+
+	public long size() {
+		authorizations.cleanUp();
+		return authorizations.estimatedSize();
+	}
+
+	public int indexedTokens() {
+		return idsByToken.size();
+	}
+
+	private void unindex(String id, OAuth2Authorization authorization, RemovalCause cause) {
+		if (authorization != null) {
+			tokenValues(authorization).forEach(token -> idsByToken.remove(token, id));
+		}
+	}
+
+	private static List<String> tokenValues(OAuth2Authorization authorization) {
+		List<String> values = new ArrayList<>();
+		String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+		if (state != null) {
+			values.add(state);
+		}
+		for (Class<? extends OAuth2Token> tokenClass : TOKEN_CLASSES) {
+			OAuth2Authorization.Token<? extends OAuth2Token> token = authorization.getToken(tokenClass);
+			if (token != null) {
+				values.add(token.getToken().getTokenValue());
+			}
+		}
+		return values;
+	}
+
+	private static boolean hasToken(OAuth2Authorization authorization, String token, @Nullable OAuth2TokenType tokenType) {
+		if (tokenType == null) {
+			return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE))
+					|| authorization.getToken(token) != null;
+		}
+		if (OAuth2ParameterNames.STATE.equals(tokenType.getValue())) {
+			return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+		}
+		Class<? extends OAuth2Token> tokenClass = switch (tokenType.getValue()) {
+			case OAuth2ParameterNames.CODE -> OAuth2AuthorizationCode.class;
+			case OAuth2ParameterNames.ACCESS_TOKEN -> OAuth2AccessToken.class;
+			case OAuth2ParameterNames.REFRESH_TOKEN -> OAuth2RefreshToken.class;
+			case OidcParameterNames.ID_TOKEN -> OidcIdToken.class;
+			case OAuth2ParameterNames.USER_CODE -> OAuth2UserCode.class;
+			case OAuth2ParameterNames.DEVICE_CODE -> OAuth2DeviceCode.class;
+			default -> null;
+		};
+		if (tokenClass == null) {
+			return false;
+		}
+		OAuth2Authorization.Token<? extends OAuth2Token> stored = authorization.getToken(tokenClass);
+		return stored != null && token.equals(stored.getToken().getTokenValue());
+	}
+
+	private class AuthorizationExpiry implements Expiry<String, OAuth2Authorization> {
+
+		@Override
+		public long expireAfterCreate(String id, OAuth2Authorization authorization, long currentTime) {
+			return timeToLive(authorization);
+		}
+
+		@Override
+		public long expireAfterUpdate(String id, OAuth2Authorization authorization, long currentTime, long currentDuration) {
+			return timeToLive(authorization);
+		}
+
+		@Override
+		public long expireAfterRead(String id, OAuth2Authorization authorization, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+		private long timeToLive(OAuth2Authorization authorization) {
+			Instant expiresAt = null;
+			for (Class<? extends OAuth2Token> tokenClass : TOKEN_CLASSES) {
+				OAuth2Authorization.Token<? extends OAuth2Token> token = authorization.getToken(tokenClass);
+				Instant tokenExpiresAt = (token == null) ? null : token.getToken().getExpiresAt();
+				if (tokenExpiresAt != null && (expiresAt == null || tokenExpiresAt.isAfter(expiresAt))) {
+					expiresAt = tokenExpiresAt;
+				}
+			}
+			if (expiresAt == null) {
+				return defaultTimeToLive.toNanos();
+			}
+			return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Counts failed password grants per username and client address. Once a pair
+ * reaches {@code maxFailures} inside {@code window}, further attempts from that
+ * address are refused with {@code too_many_attempts} before any user lookup or
+ * password hashing, until the window has passed since the last failure. A
+ * successful login clears the count. Unknown usernames are counted too, so the
+ * answer does not reveal whether an account exists.
+ * <p>
+ * Keying on the address as well means someone who knows a username cannot
+ * lock its owner out by failing on purpose; they only lock out their own
+ * address. The price is that a guesser spread over many addresses gets
+ * {@code maxFailures} tries per address and window against the same account,
+ * which the bcrypt cost and the bounded hashing pool are left to slow down.
+ * The address is {@code ServletRequest.getRemoteAddr()}, so behind a proxy
+ * {@code server.forward-headers-strategy} must be set for it to be the
+ * client's.
+ */
+public class LoginAttemptThrottle {
+
+	public static final String TOO_MANY_ATTEMPTS = "too_many_attempts";
+
+	private static final long MAX_TRACKED_KEYS = 100_000;
+
+	private final int maxFailures;
+	private final Cache<String, AtomicInteger> failures;
+
+	public LoginAttemptThrottle(int maxFailures, Duration window) {
+		Assert.isTrue(maxFailures > 0, "maxFailures must be greater than 0");
+		Assert.notNull(window, "window cannot be null");
+		this.maxFailures = maxFailures;
+		this.failures = Caffeine.newBuilder()
+				.maximumSize(MAX_TRACKED_KEYS)
+				.expireAfterWrite(window)
+				.build();
+	}
+
+	public void checkAllowed(String username, String clientAddress) {
+		AtomicInteger count = failures.getIfPresent(key(username, clientAddress));
+		if (count != null && count.get() >= maxFailures) {
+			throw new OAuth2AuthenticationException(new OAuth2Error(TOO_MANY_ATTEMPTS,
+					"Too many failed attempts, try again later", null));
+		}
+	}
+
+	public void recordFailure(String username, String clientAddress) {
+		failures.asMap().compute(key(username, clientAddress), (key, count) -> {
+			AtomicInteger next = (count == null) ? new AtomicInteger() : count;
+			next.incrementAndGet();
+			return next;
+		});
+	}
+
+	public void recordSuccess(String username, String clientAddress) {
+		failures.invalidate(key(username, clientAddress));
+	}
+
+	private static String key(String username, String clientAddress) {
+		String user = username == null ? "" : username.toLowerCase(Locale.ROOT);
+		return user + " " + (clientAddress == null ? "" : clientAddress);
+	}
+}
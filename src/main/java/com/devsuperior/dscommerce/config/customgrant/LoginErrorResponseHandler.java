@@ -0,0 +1,53 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes token endpoint and client authentication errors as the default
+ * handlers do, except that load shedding gets its own status: 503 with
+ * {@code Retry-After} when password hashing is saturated, and 429 when a
+ * username is throttled.
+ */
+public class LoginErrorResponseHandler implements AuthenticationFailureHandler {
+
+	private static final String RETRY_AFTER_SECONDS = "1";
+
+	private final HttpMessageConverter<OAuth2Error> errorConverter = new OAuth2ErrorHttpMessageConverter();
+
+	@Override
+	public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+			AuthenticationException exception) throws IOException {
+
+		SecurityContextHolder.clearContext();
+		OAuth2Error error = ((OAuth2AuthenticationException) exception).getError();
+		ServletServerHttpResponse httpResponse = new ServletServerHttpResponse(response);
+		httpResponse.setStatusCode(status(error));
+		if (OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE.equals(error.getErrorCode())) {
+			httpResponse.getHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+		}
+		errorConverter.write(error, null, httpResponse);
+	}
+
+	private static HttpStatus status(OAuth2Error error) {
+		return switch (error.getErrorCode()) {
+			case OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE -> HttpStatus.SERVICE_UNAVAILABLE;
+			case LoginAttemptThrottle.TOO_MANY_ATTEMPTS -> HttpStatus.TOO_MANY_REQUESTS;
+			case OAuth2ErrorCodes.INVALID_CLIENT -> HttpStatus.UNAUTHORIZED;
+			default -> HttpStatus.BAD_REQUEST;
+		};
+	}
+}
@@ -1,26 +1,25 @@
 package com.devsuperior.dscommerce.controllers;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.devsuperior.dscommerce.dto.CategoryDTO;
-import com.devsuperior.dscommerce.services.CategoryService;
+import com.devsuperior.dscommerce.services.CategorySnapshotCache;
+import com.devsuperior.dscommerce.services.CategorySnapshotCache.Snapshot;
 
 @RestController
 @RequestMapping(value = "/categories")
 public class CategoryController {
 
     @Autowired
-    private CategoryService service;
+    private CategorySnapshotCache snapshotCache;
 
-    @GetMapping
-    public ResponseEntity<List<CategoryDTO>> findAll() {
-        List<CategoryDTO> list = service.findAll();
-        return ResponseEntity.ok(list);
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> findAll() {
+        Snapshot snapshot = snapshotCache.get();
+        return ResponseEntity.ok().eTag(snapshot.etag()).body(snapshot.json());
     }
 }
@@ -1,10 +1,15 @@
 package com.devsuperior.dscommerce.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,14 +19,23 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.ProductBatchDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductImportDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.services.CountMode;
+import com.devsuperior.dscommerce.services.ProductExportService;
+import com.devsuperior.dscommerce.services.ProductImportService;
 import com.devsuperior.dscommerce.services.ProductService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -31,17 +45,49 @@ public class ProductController {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductExportService exportService;
+
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+        Integer version = service.findVersionById(id);
         ProductDTO dto = service.findById(id);
+        if (!version.equals(dto.getVersion())) {
+            // cached before a write made on another node
+            dto = service.reloadById(id);
+        }
+        String etag = String.valueOf(dto.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(dto);
+    }
+
+    @GetMapping(value = "/batch")
+    public ResponseEntity<ProductBatchDTO> findAllById(@RequestParam(name = "ids") List<Long> ids) {
+        ProductBatchDTO dto = service.findAllById(ids);
         return ResponseEntity.ok(dto);
     }
 
     @GetMapping
-    public ResponseEntity<Page<ProductMinDTO>> findAll(
+    public ResponseEntity<Slice<ProductMinDTO>> findAll(
             @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "count", defaultValue = "exact") String count,
             Pageable pageable) {
-        Page<ProductMinDTO> dto = service.findAll(name, pageable);
+        Slice<ProductMinDTO> dto = service.findAll(name, pageable, CountMode.of(count));
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<ProductMinDTO>> findAllAfter(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "sort", defaultValue = "id") String sort,
+            @RequestParam(name = "after") String after,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        CursorPageDTO<ProductMinDTO> dto = service.findAllAfter(name, sort, after, size);
         return ResponseEntity.ok(dto);
     }
 
@@ -54,6 +100,26 @@ public class ProductController {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ProductImportDTO> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ProductImportDTO dto = importService.importProducts(body, MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(dto);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportNdjson(HttpServletResponse response) throws IOException {
+        export(response, MediaType.APPLICATION_NDJSON);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/export", produces = "text/csv")
+    public void exportCsv(HttpServletResponse response) throws IOException {
+        export(response, ProductImportService.CSV);
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping(value = "/{id}")
     public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
@@ -67,4 +133,9 @@ public class ProductController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private void export(HttpServletResponse response, MediaType contentType) throws IOException {
+        response.setContentType(contentType + ";charset=UTF-8");
+        exportService.exportProducts(response.getOutputStream(), contentType);
+    }
 }
@@ -0,0 +1,22 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.List;
+
+public class ProductBatchDTO {
+
+    private List<ProductDTO> content;
+    private List<Long> missingIds;
+
+    public ProductBatchDTO(List<ProductDTO> content, List<Long> missingIds) {
+        this.content = content;
+        this.missingIds = missingIds;
+    }
+
+    public List<ProductDTO> getContent() {
+        return content;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
+import com.fasterxml.jackson.annotation.JsonCreator;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -25,6 +26,7 @@ public class ProductDTO {
     @Positive(message = "O preço deve ser positivo")
     private Double price;
     private String imgUrl;
+    private Integer version;
     
     @NotEmpty(message = "Deve ter pelo menos uma categoria")
     private List<CategoryDTO> categories = new ArrayList<>();
@@ -38,11 +40,17 @@ public class ProductDTO {
     }
 
     public ProductDTO(Product entity) {
+        this(entity, entity.getDescription());
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DISABLED)
+    public ProductDTO(Product entity, String description) {
         id = entity.getId();
         name = entity.getName();
-        description = entity.getDescription();
+        this.description = description;
         price = entity.getPrice();
         imgUrl = entity.getImgUrl();
+        version = entity.getVersion();
         for (Category cat : entity.getCategories()) {
         	categories.add(new CategoryDTO(cat));
         }
@@ -68,6 +76,10 @@ public class ProductDTO {
         return imgUrl;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
 	public List<CategoryDTO> getCategories() {
 		return categories;
 	}
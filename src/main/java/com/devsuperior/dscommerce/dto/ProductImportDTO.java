@@ -0,0 +1,47 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.List;
+
+public class ProductImportDTO {
+
+    private Long rows;
+    private Long imported;
+    private Long failed;
+    private Long elapsedMillis;
+    private Long rowsPerSecond;
+    private List<ProductImportErrorDTO> errors;
+
+    public ProductImportDTO(Long rows, Long imported, Long failed, Long elapsedMillis, Long rowsPerSecond,
+            List<ProductImportErrorDTO> errors) {
+        this.rows = rows;
+        this.imported = imported;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+        this.errors = errors;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public Long getImported() {
+        return imported;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public Long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public List<ProductImportErrorDTO> getErrors() {
+        return errors;
+    }
+}
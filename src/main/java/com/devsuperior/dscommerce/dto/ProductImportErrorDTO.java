@@ -0,0 +1,26 @@
+package com.devsuperior.dscommerce.dto;
+
+public class ProductImportErrorDTO {
+
+    private Long line;
+    private String fieldName;
+    private String message;
+
+    public ProductImportErrorDTO(Long line, String fieldName, String message) {
+        this.line = line;
+        this.fieldName = fieldName;
+        this.message = message;
+    }
+
+    public Long getLine() {
+        return line;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
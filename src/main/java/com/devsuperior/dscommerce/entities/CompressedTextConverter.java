@@ -0,0 +1,89 @@
+package com.devsuperior.dscommerce.entities;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores long text gzip-compressed and Base64-encoded behind a {@code {gzip}}
+ * prefix. Plain text that itself starts with {@code {gzip}} or {@code {plain}}
+ * is written behind a {@code {plain}} prefix, so it cannot be taken for
+ * compressed data. Reading accepts every form, and a {@code {gzip}} value that
+ * does not decode is returned as is. Existing plain rows keep working and
+ * compression can be switched on or off at any time; a row is rewritten in
+ * the configured form the next time it is saved. Hibernate creates the
+ * converter through Spring, which injects the settings.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    public static final String PREFIX = "{gzip}";
+    public static final String PLAIN_PREFIX = "{plain}";
+
+    @Value("${product.description.compress}")
+    private boolean compress;
+
+    @Value("${product.description.compress-min-length}")
+    private int minLength;
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        if (compress && attribute != null && attribute.length() >= minLength) {
+            String compressed = PREFIX + Base64.getEncoder().encodeToString(gzip(attribute));
+            if (compressed.length() < attribute.length()) {
+                return compressed;
+            }
+        }
+        if (attribute != null && (attribute.startsWith(PREFIX) || attribute.startsWith(PLAIN_PREFIX))) {
+            return PLAIN_PREFIX + attribute;
+        }
+        return attribute;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return decode(dbData);
+    }
+
+    public static String decode(String dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        if (dbData.startsWith(PLAIN_PREFIX)) {
+            return dbData.substring(PLAIN_PREFIX.length());
+        }
+        if (!dbData.startsWith(PREFIX)) {
+            return dbData;
+        }
+        try {
+            byte[] bytes = Base64.getDecoder().decode(dbData.substring(PREFIX.length()));
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        catch (IllegalArgumentException | IOException e) {
+            return dbData;
+        }
+    }
+
+    private static byte[] gzip(String text) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
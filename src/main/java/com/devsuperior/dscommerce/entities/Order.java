@@ -21,6 +21,10 @@ public class Order {
     private Instant moment;
     private OrderStatus status;
 
+    @Version
+    @Column(columnDefinition = "INTEGER DEFAULT 0")
+    private Integer version;
+
     @ManyToOne
     @JoinColumn(name = "client_id")
     private User client;
@@ -28,7 +32,7 @@ public class Order {
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
     private Payment payment;
 
-    @OneToMany(mappedBy = "id.order")
+    @OneToMany(mappedBy = "id.order", cascade = CascadeType.PERSIST)
     private Set<OrderItem> items = new HashSet<>();
 
     public Order() {
@@ -66,6 +70,10 @@ public class Order {
         this.status = status;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
     public User getClient() {
         return client;
     }
@@ -5,19 +5,29 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "tb_product")
+@Table(name = "tb_product", indexes = {
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id")
+})
 public class Product {
 
     @Id
@@ -25,12 +35,19 @@ public class Product {
     private Long id;
     private String name;
     
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
     @Column(columnDefinition = "TEXT")
     private String description;
     private Double price;
     private String imgUrl;
 
+    @Version
+    @Column(columnDefinition = "INTEGER DEFAULT 0")
+    private Integer version;
+
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(name = "tb_product_category",
             joinColumns = @JoinColumn(name = "product_id"),
             inverseJoinColumns = @JoinColumn(name = "category_id"))
@@ -90,6 +107,10 @@ public class Product {
         this.imgUrl = imgUrl;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
     public Set<Category> getCategories() {
         return categories;
     }
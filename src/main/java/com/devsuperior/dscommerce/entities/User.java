@@ -11,6 +11,9 @@ import java.util.Set;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.devsuperior.dscommerce.util.Authority;
+import com.devsuperior.dscommerce.util.AuthoritySet;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -21,6 +24,7 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 @SuppressWarnings("serial")
 @Entity
@@ -47,6 +51,9 @@ public class User implements UserDetails {
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
+    @Transient
+    private transient AuthoritySet authorities;
+
     public User() {
     }
 
@@ -113,15 +120,24 @@ public class User implements UserDetails {
 
     public void addRole(Role role) {
     	roles.add(role);
+    	authorities = null;
     }
     
 	public boolean hasRole(String roleName) {
-		for (Role role : roles) {
-			if (role.getAuthority().equals(roleName)) {
-				return true;
-			}
+		return authoritySet().contains(roleName);
+	}
+
+	public boolean hasRole(Authority authority) {
+		return authoritySet().contains(authority);
+	}
+
+	public AuthoritySet authoritySet() {
+		AuthoritySet result = authorities;
+		if (result == null) {
+			result = AuthoritySet.ofGranted(roles);
+			authorities = result;
 		}
-		return false;
+		return result;
 	}
 	
     @Override
@@ -141,7 +157,7 @@ public class User implements UserDetails {
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		return roles;
+		return authoritySet().grantedAuthorities();
 	}
 
 	@Override
@@ -0,0 +1,8 @@
+package com.devsuperior.dscommerce.projections;
+
+public interface OrderVersionProjection {
+
+	Integer getVersion();
+	Long getClientId();
+	Long getProductsVersion();
+}
@@ -0,0 +1,8 @@
+package com.devsuperior.dscommerce.projections;
+
+public interface ProductCatalogStateProjection {
+
+	Long getCount();
+	Long getMaxId();
+	Long getVersionSum();
+}
@@ -1,10 +0,0 @@
-package com.devsuperior.dscommerce.repositories;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-
-import com.devsuperior.dscommerce.entities.OrderItem;
-import com.devsuperior.dscommerce.entities.OrderItemPK;
-
-public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemPK> {
-
-}
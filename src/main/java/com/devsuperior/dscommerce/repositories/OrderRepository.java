@@ -1,9 +1,29 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.projections.OrderVersionProjection;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    @Query("SELECT obj FROM Order obj " +
+            "JOIN FETCH obj.client " +
+            "LEFT JOIN FETCH obj.payment " +
+            "LEFT JOIN FETCH obj.items item " +
+            "LEFT JOIN FETCH item.id.product " +
+            "WHERE obj.id = :id")
+    Optional<Order> searchWithItemsById(Long id);
+
+    @Query("SELECT obj.version AS version, obj.client.id AS clientId, " +
+            "COALESCE(SUM(product.version), 0) AS productsVersion " +
+            "FROM Order obj " +
+            "LEFT JOIN obj.items item " +
+            "LEFT JOIN item.id.product product " +
+            "WHERE obj.id = :id " +
+            "GROUP BY obj.version, obj.client.id")
+    Optional<OrderVersionProjection> searchVersionById(Long id);
 }
@@ -1,14 +1,79 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductCatalogStateProjection;
+import com.devsuperior.dscommerce.projections.ProductDescriptionProjection;
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Query("SELECT obj FROM Product obj " +
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))",
+            countQuery = "SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Page<ProductMinDTO> searchByName(String name, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
             "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
-    Page<Product> searchByName(String name, Pageable pageable);
+    Slice<ProductMinDTO> searchSliceByName(String name, Pageable pageable);
+
+    @Query("SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    long countByName(String name);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.id > :id " +
+            "ORDER BY obj.id")
+    List<ProductMinDTO> searchByNameAfterId(String name, Long id, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.name >= :afterName " +
+            "AND (obj.name > :afterName OR (obj.name = :afterName AND obj.id > :id)) " +
+            "ORDER BY obj.name, obj.id")
+    List<ProductMinDTO> searchByNameAfterName(String name, String afterName, Long id, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.price >= :afterPrice " +
+            "AND (obj.price > :afterPrice OR (obj.price = :afterPrice AND obj.id > :id)) " +
+            "ORDER BY obj.price, obj.id")
+    List<ProductMinDTO> searchByNameAfterPrice(String name, Double afterPrice, Long id, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj WHERE obj.id IN :ids")
+    List<ProductMinDTO> searchByIds(List<Long> ids, Pageable pageable);
+
+    @Query("SELECT DISTINCT obj FROM Product obj " +
+            "LEFT JOIN FETCH obj.categories " +
+            "WHERE obj.id IN :ids")
+    List<Product> searchWithCategoriesByIds(Collection<Long> ids);
+
+    @Query("SELECT obj.id AS id, obj.description AS description FROM Product obj WHERE obj.id IN :ids")
+    List<ProductDescriptionProjection> searchDescriptionsByIds(Collection<Long> ids);
+
+    @Query("SELECT obj.version FROM Product obj WHERE obj.id = :id")
+    Optional<Integer> findVersionById(Long id);
+
+    @Query("SELECT obj.id AS id, obj.name AS name FROM Product obj ORDER BY obj.id")
+    List<ProductNameProjection> searchAllNames();
+
+    @Query("SELECT COUNT(obj) AS count, MAX(obj.id) AS maxId, COALESCE(SUM(obj.version), 0) AS versionSum FROM Product obj")
+    ProductCatalogStateProjection searchCatalogState();
 }
@@ -3,8 +3,9 @@ package com.devsuperior.dscommerce.services;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
+import com.devsuperior.dscommerce.util.AuthenticatedUser;
+import com.devsuperior.dscommerce.util.Authority;
 
 @Service
 public class AuthService {
@@ -13,8 +14,8 @@ public class AuthService {
 	private UserService userService;
 	
 	public void validateSelfOrAdmin(Long userId) {
-		User me = userService.authenticated();
-		if (me.hasRole("ROLE_ADMIN")) {
+		AuthenticatedUser me = userService.authenticatedPrincipal();
+		if (me.hasRole(Authority.ROLE_ADMIN)) {
 			return;
 		}
 		if(!me.getId().equals(userId)) {
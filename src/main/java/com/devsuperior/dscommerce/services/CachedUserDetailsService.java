@@ -0,0 +1,57 @@
+package com.devsuperior.dscommerce.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.config.CacheConfig;
+
+/**
+ * Caches {@link UserService#loadUserByUsername} results for the token
+ * endpoint. Unknown usernames are not cached. Anything that changes a user's
+ * password or roles must call {@link #evict(String)}; password hash upgrades
+ * go through {@link #updatePassword} and do so already.
+ */
+@Primary
+@Service
+public class CachedUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+	@Autowired
+	private UserService userService;
+
+	private final Cache cache;
+
+	public CachedUserDetailsService(CacheManager cacheManager) {
+		this.cache = cacheManager.getCache(CacheConfig.USER_DETAILS);
+	}
+
+	@Override
+	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		try {
+			return cache.get(username, () -> userService.loadUserByUsername(username));
+		}
+		catch (Cache.ValueRetrievalException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		userService.updatePassword(user.getUsername(), newPassword);
+		evict(user.getUsername());
+		return loadUserByUsername(user.getUsername());
+	}
+
+	public void evict(String username) {
+		cache.evict(username);
+	}
+}
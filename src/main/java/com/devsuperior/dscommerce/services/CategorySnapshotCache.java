@@ -0,0 +1,76 @@
+package com.devsuperior.dscommerce.services;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The category list serialized once to JSON, with a strong ETag derived from
+ * its bytes. Reads are served from memory; the list is re-read from the
+ * database at most once per {@code category.snapshot.ttl} and the snapshot is
+ * only replaced when the serialized content actually changed, so the ETag
+ * stays stable between category edits.
+ */
+@Component
+public class CategorySnapshotCache {
+
+	@Autowired
+	private CategoryService service;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${category.snapshot.ttl}")
+	private long ttl;
+
+	private volatile Snapshot snapshot;
+	private volatile long expiresAt;
+
+	public Snapshot get() {
+		Snapshot current = snapshot;
+		if (current != null && expiresAt > System.currentTimeMillis()) {
+			return current;
+		}
+		return refresh();
+	}
+
+	public void invalidate() {
+		expiresAt = 0;
+	}
+
+	private synchronized Snapshot refresh() {
+		long now = System.currentTimeMillis();
+		if (snapshot != null && expiresAt > now) {
+			return snapshot;
+		}
+		Snapshot rebuilt = build(service.findAll());
+		if (snapshot == null || !snapshot.etag().equals(rebuilt.etag())) {
+			snapshot = rebuilt;
+		}
+		expiresAt = now + ttl;
+		return snapshot;
+	}
+
+	private Snapshot build(List<CategoryDTO> categories) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(categories);
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+			return new Snapshot(json, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+		}
+		catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Could not serialize categories", e);
+		}
+	}
+
+	public record Snapshot(byte[] json, String etag) {
+	}
+}
@@ -0,0 +1,24 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.Locale;
+
+import com.devsuperior.dscommerce.services.exceptions.InvalidRequestException;
+
+/**
+ * How a paged listing computes its total: {@code EXACT} runs a COUNT query,
+ * {@code ESTIMATE} reuses a recent count and {@code NONE} only reports whether
+ * there is a next page.
+ */
+public enum CountMode {
+
+	EXACT, ESTIMATE, NONE;
+
+	public static CountMode of(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			throw new InvalidRequestException("Modo de contagem inválido: " + value);
+		}
+	}
+}
@@ -1,6 +1,10 @@
 package com.devsuperior.dscommerce.services;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,7 +17,7 @@ import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
-import com.devsuperior.dscommerce.repositories.OrderItemRepository;
+import com.devsuperior.dscommerce.projections.OrderVersionProjection;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
@@ -27,9 +31,6 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
     
-    @Autowired
-    private OrderItemRepository orderItemRepository;
-    
     @Autowired
     private UserService userService;
     
@@ -38,12 +39,24 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
-        Order order = repository.findById(id).orElseThrow(
+        Order order = repository.searchWithItemsById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado"));
         authService.validateSelfOrAdmin(order.getClient().getId());
         return new OrderDTO(order);
     }
 
+    /**
+     * ETag value of the order: its own version plus the sum of the versions of
+     * the products in its items, whose names and images are part of the DTO.
+     */
+    @Transactional(readOnly = true)
+    public String findETagById(Long id) {
+        OrderVersionProjection result = repository.searchVersionById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado"));
+        authService.validateSelfOrAdmin(result.getClientId());
+        return result.getVersion() + "-" + result.getProductsVersion();
+    }
+
     @Transactional
 	public OrderDTO insert(OrderDTO dto) {
 		
@@ -52,18 +65,29 @@ public class OrderService {
     	order.setMoment(Instant.now());
     	order.setStatus(OrderStatus.WAITING_PAYMENT);
     	
-    	User user = userService.authenticated();
+    	User user = userService.authenticatedReference();
     	order.setClient(user);
     	
+    	Map<Long, Product> products = findProducts(dto.getItems());
     	for (OrderItemDTO itemDto : dto.getItems()) {
-    		Product product = productRepository.getReferenceById(itemDto.getProductId());
+    		Product product = products.get(itemDto.getProductId());
     		OrderItem item = new OrderItem(order, product, itemDto.getQuantity(), product.getPrice());
     		order.getItems().add(item);
     	}
     	
     	repository.save(order);
-    	orderItemRepository.saveAll(order.getItems());
     	
     	return new OrderDTO(order);
 	}
+
+    private Map<Long, Product> findProducts(List<OrderItemDTO> items) {
+        List<Long> ids = items.stream().map(x -> x.getProductId()).distinct().toList();
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Long> missing = ids.stream().filter(x -> !products.containsKey(x)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Produto não encontrado: " + missing);
+        }
+        return products;
+    }
 }
@@ -0,0 +1,37 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.config.CacheConfig;
+
+/**
+ * Recently computed product counts per name filter, used by
+ * {@link CountMode#ESTIMATE} listings. Counts live in the
+ * {@link CacheConfig#PRODUCT_COUNTS} cache, expire after
+ * {@code product.count.cache-ttl} and are dropped on every product write, so
+ * an estimate is at most one TTL behind writes made by other nodes.
+ */
+@Component
+public class ProductCountCache {
+
+	private final Cache counts;
+
+	@Autowired
+	public ProductCountCache(CacheManager cacheManager) {
+		counts = cacheManager.getCache(CacheConfig.PRODUCT_COUNTS);
+	}
+
+	public long get(String name, Supplier<Long> loader) {
+		return counts.get(name.toUpperCase(Locale.ROOT), loader::get);
+	}
+
+	public void invalidate() {
+		counts.clear();
+	}
+}
@@ -0,0 +1,96 @@
+package com.devsuperior.dscommerce.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.services.exceptions.InvalidRequestException;
+
+/**
+ * Position of a keyset (seek) page over products: the sort key of the last
+ * product returned plus its id as tie-breaker. Clients see it as an opaque
+ * URL-safe token.
+ */
+public class ProductCursor {
+
+	public static final String SORT_ID = "id";
+	public static final String SORT_NAME = "name";
+	public static final String SORT_PRICE = "price";
+
+	private static final String SEPARATOR = "|";
+
+	private final String sort;
+	private final Long id;
+	private final String value;
+
+	private ProductCursor(String sort, Long id, String value) {
+		this.sort = sort;
+		this.id = id;
+		this.value = value;
+	}
+
+	public static ProductCursor first(String sort) {
+		return switch (validSort(sort)) {
+			case SORT_NAME -> new ProductCursor(sort, 0L, "");
+			case SORT_PRICE -> new ProductCursor(sort, 0L, String.valueOf(-Double.MAX_VALUE));
+			default -> new ProductCursor(sort, 0L, "");
+		};
+	}
+
+	public static ProductCursor after(String sort, ProductMinDTO product) {
+		return switch (sort) {
+			case SORT_NAME -> new ProductCursor(sort, product.getId(), product.getName());
+			case SORT_PRICE -> new ProductCursor(sort, product.getId(), String.valueOf(product.getPrice()));
+			default -> new ProductCursor(sort, product.getId(), "");
+		};
+	}
+
+	public static ProductCursor decode(String sort, String token) {
+		if (token == null || token.isBlank()) {
+			return first(sort);
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\" + SEPARATOR, 3);
+			ProductCursor cursor = new ProductCursor(parts[0], Long.valueOf(parts[1]), parts[2]);
+			if (!cursor.sort.equals(validSort(sort))) {
+				throw new InvalidRequestException("Cursor não corresponde à ordenação solicitada");
+			}
+			if (cursor.sort.equals(SORT_PRICE)) {
+				Double.valueOf(cursor.value);
+			}
+			return cursor;
+		}
+		catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			throw new InvalidRequestException("Cursor inválido");
+		}
+	}
+
+	public String encode() {
+		String raw = sort + SEPARATOR + id + SEPARATOR + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public String getSort() {
+		return sort;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return value;
+	}
+
+	public Double getPrice() {
+		return Double.valueOf(value);
+	}
+
+	private static String validSort(String sort) {
+		if (!SORT_ID.equals(sort) && !SORT_NAME.equals(sort) && !SORT_PRICE.equals(sort)) {
+			throw new InvalidRequestException("Ordenação inválida: " + sort);
+		}
+		return sort;
+	}
+}
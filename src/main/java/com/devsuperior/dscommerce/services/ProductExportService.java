@@ -0,0 +1,160 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.CompressedTextConverter;
+import com.devsuperior.dscommerce.util.CsvWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Full catalog export as NDJSON or CSV. Products are read with plain JDBC from
+ * a forward-only cursor with {@code product.export.fetch-size}, one row per
+ * product category ordered by product id, and each product is written as
+ * soon as its last row has been read. Nothing goes through the persistence
+ * context, so heap use does not grow with the catalog.
+ * <p>
+ * The output is accepted as is by {@link ProductImportService}; in CSV the
+ * categories column holds the category ids separated by {@code |}.
+ */
+@Service
+public class ProductExportService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+
+	private static final String SELECT_PRODUCTS = "SELECT p.id, p.name, p.description, p.price, p.img_url, c.id AS category_id, c.name AS category_name "
+			+ "FROM tb_product p "
+			+ "LEFT JOIN tb_product_category pc ON pc.product_id = p.id "
+			+ "LEFT JOIN tb_category c ON c.id = pc.category_id "
+			+ "ORDER BY p.id, c.id";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${product.export.fetch-size}")
+	private int fetchSize;
+
+	@Transactional(readOnly = true)
+	public long exportProducts(OutputStream out, MediaType contentType) throws IOException {
+		long start = System.currentTimeMillis();
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		ProductWriter productWriter = contentType.isCompatibleWith(ProductImportService.CSV)
+				? new CsvProductWriter(new CsvWriter(writer))
+				: new NdjsonProductWriter(writer);
+		ExportHandler handler = new ExportHandler(productWriter);
+		try {
+			jdbcTemplate.query(con -> {
+				PreparedStatement ps = con.prepareStatement(SELECT_PRODUCTS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				ps.setFetchSize(fetchSize);
+				return ps;
+			}, handler);
+			handler.finish();
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.flush();
+		logger.info("Exported {} products in {} ms", handler.count, System.currentTimeMillis() - start);
+		return handler.count;
+	}
+
+	private interface ProductWriter {
+
+		void write(ProductDTO dto) throws IOException;
+	}
+
+	private class NdjsonProductWriter implements ProductWriter {
+
+		private final Writer writer;
+
+		NdjsonProductWriter(Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void write(ProductDTO dto) throws IOException {
+			writer.write(objectMapper.writeValueAsString(dto));
+			writer.write('\n');
+		}
+	}
+
+	private static class CsvProductWriter implements ProductWriter {
+
+		private final CsvWriter writer;
+
+		CsvProductWriter(CsvWriter writer) throws IOException {
+			this.writer = writer;
+			writer.writeRecord("id", "name", "description", "price", "imgUrl", "categories");
+		}
+
+		@Override
+		public void write(ProductDTO dto) throws IOException {
+			String categories = dto.getCategories().stream().map(x -> String.valueOf(x.getId())).collect(Collectors.joining("|"));
+			writer.writeRecord(String.valueOf(dto.getId()), dto.getName(), dto.getDescription(),
+					String.valueOf(dto.getPrice()), dto.getImgUrl(), categories);
+		}
+	}
+
+	private static class ExportHandler implements RowCallbackHandler {
+
+		private final ProductWriter writer;
+		private ProductDTO current;
+		private long count;
+
+		ExportHandler(ProductWriter writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			long id = rs.getLong("id");
+			if (current == null || current.getId() != id) {
+				finish();
+				current = new ProductDTO(id, rs.getString("name"), CompressedTextConverter.decode(rs.getString("description")),
+						rs.getDouble("price"), rs.getString("img_url"));
+			}
+			long categoryId = rs.getLong("category_id");
+			if (!rs.wasNull()) {
+				current.getCategories().add(new CategoryDTO(categoryId, rs.getString("category_name")));
+			}
+		}
+
+		void finish() {
+			if (current == null) {
+				return;
+			}
+			try {
+				writer.write(current);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			count++;
+			current = null;
+		}
+	}
+}
@@ -0,0 +1,336 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductImportDTO;
+import com.devsuperior.dscommerce.dto.ProductImportErrorDTO;
+import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.entities.CompressedTextConverter;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.services.exceptions.InvalidRequestException;
+import com.devsuperior.dscommerce.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk product import from NDJSON or CSV. The body is read one row at a time;
+ * each row is checked against the {@link ProductDTO} constraints and the
+ * category ids loaded once at the start, and valid rows are written with JDBC
+ * batches, one transaction per {@code product.import.chunk-size} rows. A
+ * failed row or chunk is reported and skipped, rows already committed stay.
+ * <p>
+ * CSV input needs a header row with {@code name}, {@code description} and
+ * {@code price} columns, optionally {@code imgUrl} and {@code categories}, the
+ * latter holding category ids separated by {@code |}.
+ */
+@Service
+public class ProductImportService {
+
+	public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+	private static final String INSERT_PRODUCT = "INSERT INTO tb_product (name, description, price, img_url) VALUES (?, ?, ?, ?)";
+	private static final String INSERT_PRODUCT_CATEGORY = "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+	private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "price");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private ProductCountCache countCache;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private AutowireCapableBeanFactory beanFactory;
+
+	@Value("${product.import.chunk-size}")
+	private int chunkSize;
+
+	@Value("${product.import.max-errors}")
+	private int maxErrors;
+
+	public ProductImportDTO importProducts(InputStream body, MediaType contentType) throws IOException {
+		long start = System.currentTimeMillis();
+		Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+		BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+		RowReader rows = contentType.isCompatibleWith(CSV) ? new CsvRows(new CsvReader(reader)) : new NdjsonRows(reader);
+
+		Set<Long> categoryIds = categoryRepository.findAll().stream().map(Category::getId).collect(Collectors.toSet());
+		CompressedTextConverter descriptionConverter = beanFactory.createBean(CompressedTextConverter.class);
+		Progress progress = new Progress();
+		List<Row> chunk = new ArrayList<>();
+		for (Row row = rows.next(); row != null; row = rows.next()) {
+			progress.rows++;
+			List<ProductImportErrorDTO> errors = row.errors().isEmpty() ? validate(row, categoryIds) : row.errors();
+			if (!errors.isEmpty()) {
+				progress.fail(errors);
+				continue;
+			}
+			chunk.add(row);
+			if (chunk.size() == chunkSize) {
+				write(chunk, descriptionConverter, progress, start);
+				chunk.clear();
+			}
+		}
+		write(chunk, descriptionConverter, progress, start);
+
+		long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+		long rowsPerSecond = progress.imported * 1000 / elapsed;
+		logger.info("Imported {} of {} products in {} ms ({} rows/s)", progress.imported, progress.rows, elapsed, rowsPerSecond);
+		return new ProductImportDTO(progress.rows, progress.imported, progress.failed, elapsed, rowsPerSecond, progress.errors);
+	}
+
+	private List<ProductImportErrorDTO> validate(Row row, Set<Long> categoryIds) {
+		List<ProductImportErrorDTO> errors = new ArrayList<>();
+		for (ConstraintViolation<ProductDTO> violation : validator.validate(row.dto())) {
+			errors.add(new ProductImportErrorDTO(row.line(), violation.getPropertyPath().toString(), violation.getMessage()));
+		}
+		errors.sort(Comparator.comparing(ProductImportErrorDTO::getFieldName));
+		List<CategoryDTO> categories = row.dto().getCategories();
+		if (categories == null) {
+			return errors;
+		}
+		if (categories.contains(null)) {
+			errors.add(new ProductImportErrorDTO(row.line(), "categories", "Categoria inválida: null"));
+			return errors;
+		}
+		List<Long> missing = categories.stream().map(CategoryDTO::getId)
+				.filter(id -> !categoryIds.contains(id)).distinct().toList();
+		if (!missing.isEmpty()) {
+			errors.add(new ProductImportErrorDTO(row.line(), "categories", "Categorias não encontradas: " + missing));
+		}
+		return errors;
+	}
+
+	private void write(List<Row> chunk, CompressedTextConverter descriptionConverter, Progress progress, long start) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		List<Long> ids;
+		try {
+			ids = transactionTemplate.execute(status -> insert(chunk, descriptionConverter));
+		}
+		catch (DataAccessException | IllegalStateException e) {
+			if (chunk.size() == 1) {
+				logger.warn("Product import row at line {} failed", chunk.get(0).line(), e);
+				progress.fail(List.of(new ProductImportErrorDTO(chunk.get(0).line(), null, "Falha ao gravar o produto")));
+				return;
+			}
+			// retry each half on its own, so only the rows the database rejects are reported
+			int half = chunk.size() / 2;
+			write(chunk.subList(0, half), descriptionConverter, progress, start);
+			write(chunk.subList(half, chunk.size()), descriptionConverter, progress, start);
+			return;
+		}
+		for (int i = 0; i < chunk.size(); i++) {
+			searchIndex.put(ids.get(i), chunk.get(i).dto().getName());
+		}
+		countCache.invalidate();
+		progress.imported += chunk.size();
+		logger.debug("Imported {} products, {} rows/s", progress.imported,
+				progress.imported * 1000 / Math.max(System.currentTimeMillis() - start, 1));
+	}
+
+	private List<Long> insert(List<Row> chunk, CompressedTextConverter descriptionConverter) {
+		return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+			List<Long> ids = new ArrayList<>(chunk.size());
+			try (PreparedStatement ps = con.prepareStatement(INSERT_PRODUCT, new String[] {"id"})) {
+				for (Row row : chunk) {
+					ps.setString(1, row.dto().getName());
+					ps.setString(2, descriptionConverter.convertToDatabaseColumn(row.dto().getDescription()));
+					ps.setDouble(3, row.dto().getPrice());
+					ps.setString(4, row.dto().getImgUrl());
+					ps.addBatch();
+				}
+				ps.executeBatch();
+				try (ResultSet keys = ps.getGeneratedKeys()) {
+					while (keys.next()) {
+						ids.add(keys.getLong(1));
+					}
+				}
+			}
+			if (ids.size() != chunk.size()) {
+				throw new IllegalStateException("Expected " + chunk.size() + " generated ids, got " + ids.size());
+			}
+			try (PreparedStatement ps = con.prepareStatement(INSERT_PRODUCT_CATEGORY)) {
+				for (int i = 0; i < chunk.size(); i++) {
+					for (Long categoryId : chunk.get(i).dto().getCategories().stream().map(CategoryDTO::getId).distinct().toList()) {
+						ps.setLong(1, ids.get(i));
+						ps.setLong(2, categoryId);
+						ps.addBatch();
+					}
+				}
+				ps.executeBatch();
+			}
+			return ids;
+		});
+	}
+
+	private interface RowReader {
+
+		Row next() throws IOException;
+	}
+
+	private class NdjsonRows implements RowReader {
+
+		private final BufferedReader reader;
+		private long lineNumber;
+
+		NdjsonRows(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public Row next() throws IOException {
+			String line;
+			do {
+				line = reader.readLine();
+				if (line == null) {
+					return null;
+				}
+				lineNumber++;
+			} while (line.isBlank());
+			try {
+				ProductDTO dto = objectMapper.readValue(line, ProductDTO.class);
+				if (dto == null) {
+					return new Row(lineNumber, null, List.of(new ProductImportErrorDTO(lineNumber, null, "Produto ausente")));
+				}
+				return new Row(lineNumber, dto, List.of());
+			}
+			catch (JsonProcessingException e) {
+				return new Row(lineNumber, null, List.of(new ProductImportErrorDTO(lineNumber, null, "JSON inválido: " + e.getOriginalMessage())));
+			}
+		}
+	}
+
+	private static class CsvRows implements RowReader {
+
+		private final CsvReader reader;
+		private final Map<String, Integer> columns = new HashMap<>();
+
+		CsvRows(CsvReader reader) throws IOException {
+			this.reader = reader;
+			List<String> header = reader.next();
+			if (header != null) {
+				for (int i = 0; i < header.size(); i++) {
+					columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+				}
+			}
+			List<String> missing = REQUIRED_COLUMNS.stream().filter(x -> !columns.containsKey(x)).toList();
+			if (!missing.isEmpty()) {
+				throw new InvalidRequestException("Colunas obrigatórias ausentes: " + missing);
+			}
+		}
+
+		@Override
+		public Row next() throws IOException {
+			List<String> fields;
+			do {
+				fields = reader.next();
+				if (fields == null) {
+					return null;
+				}
+			} while (fields.size() == 1 && fields.get(0).isBlank());
+			long line = reader.getRecordLine();
+			List<ProductImportErrorDTO> errors = new ArrayList<>();
+
+			Double price = null;
+			String priceValue = value(fields, "price");
+			if (priceValue != null) {
+				try {
+					price = Double.valueOf(priceValue);
+				}
+				catch (NumberFormatException e) {
+					errors.add(new ProductImportErrorDTO(line, "price", "Preço inválido: " + priceValue));
+				}
+			}
+			ProductDTO dto = new ProductDTO(null, value(fields, "name"), value(fields, "description"), price, value(fields, "imgUrl"));
+			String categories = value(fields, "categories");
+			if (categories != null) {
+				for (String id : categories.split("\\|")) {
+					try {
+						dto.getCategories().add(new CategoryDTO(Long.valueOf(id.trim()), null));
+					}
+					catch (NumberFormatException e) {
+						errors.add(new ProductImportErrorDTO(line, "categories", "Categoria inválida: " + id));
+					}
+				}
+			}
+			return new Row(line, dto, errors);
+		}
+
+		private String value(List<String> fields, String column) {
+			Integer index = columns.get(column);
+			if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+				return null;
+			}
+			return fields.get(index);
+		}
+	}
+
+	private record Row(long line, ProductDTO dto, List<ProductImportErrorDTO> errors) {
+	}
+
+	private class Progress {
+
+		private long rows;
+		private long imported;
+		private long failed;
+		private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+
+		void fail(List<ProductImportErrorDTO> rowErrors) {
+			failed++;
+			for (ProductImportErrorDTO error : rowErrors) {
+				if (errors.size() < maxErrors) {
+					errors.add(error);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,284 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.projections.ProductCatalogStateProjection;
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * In-memory trigram index over product names. A search intersects the posting
+ * lists of the term's trigrams and then confirms the substring match, so it
+ * answers the same question as {@code UPPER(name) LIKE UPPER('%term%')} while
+ * only touching candidate products.
+ * <p>
+ * The index is built asynchronously at startup and kept current with this
+ * node's writes. Writes made by other nodes are picked up by a cheap check of
+ * the catalog's row count, highest id and version sum, run every
+ * {@code product.search.check-interval}, which rebuilds the index when they
+ * changed. Direct SQL updates that rename a product without bumping its version
+ * escape that check and are only picked up by the full rebuild every
+ * {@code product.search.rebuild-interval}. Until the first build finishes, and
+ * for terms shorter than a trigram, {@link #search(String)} returns empty and
+ * callers fall back to the database query.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	private static final int GRAM_SIZE = 3;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private Map<Long, String> names = new HashMap<>();
+	private Map<String, PostingList> postings = new HashMap<>();
+	private List<Runnable> pendingChanges;
+	private volatile boolean ready;
+	private volatile String catalogState;
+
+	@Scheduled(fixedDelayString = "${product.search.rebuild-interval}")
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		setPendingChanges(new ArrayList<>());
+
+		String state;
+		Map<Long, String> newNames = new HashMap<>();
+		Map<String, PostingList> newPostings = new HashMap<>();
+		try {
+			state = catalogState();
+			for (ProductNameProjection row : repository.searchAllNames()) {
+				add(newNames, newPostings, row.getId(), row.getName());
+			}
+		}
+		catch (RuntimeException e) {
+			setPendingChanges(null);
+			throw e;
+		}
+
+		lock.writeLock().lock();
+		try {
+			names = newNames;
+			postings = newPostings;
+			pendingChanges.forEach(Runnable::run);
+			pendingChanges = null;
+			catalogState = state;
+			ready = true;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Product search index rebuilt with {} products in {} ms", newNames.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	@Scheduled(fixedDelayString = "${product.search.check-interval}", initialDelayString = "${product.search.check-interval}")
+	public void rebuildIfChanged() {
+		if (ready && !catalogState().equals(catalogState)) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Returns the ids of all products whose name contains {@code term}, ignoring
+	 * case, in ascending order. Returns empty when the index cannot answer the
+	 * query and the caller must fall back to the database.
+	 */
+	public Optional<List<Long>> search(String term) {
+		String key = normalize(term);
+		if (!ready || key.length() < GRAM_SIZE) {
+			return Optional.empty();
+		}
+
+		lock.readLock().lock();
+		try {
+			List<PostingList> lists = new ArrayList<>();
+			for (String gram : grams(key)) {
+				PostingList list = postings.get(gram);
+				if (list == null) {
+					return Optional.of(List.of());
+				}
+				lists.add(list);
+			}
+			lists.sort(Comparator.comparingInt(PostingList::size));
+
+			PostingList smallest = lists.get(0);
+			List<Long> result = new ArrayList<>();
+			for (int i = 0; i < smallest.size(); i++) {
+				long id = smallest.get(i);
+				if (containsInAll(lists, id) && names.get(id).contains(key)) {
+					result.add(id);
+				}
+			}
+			return Optional.of(result);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public void put(Long id, String name) {
+		lock.writeLock().lock();
+		try {
+			remove(names, postings, id);
+			add(names, postings, id, name);
+			if (pendingChanges != null) {
+				pendingChanges.add(() -> {
+					remove(names, postings, id);
+					add(names, postings, id, name);
+				});
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long id) {
+		lock.writeLock().lock();
+		try {
+			remove(names, postings, id);
+			if (pendingChanges != null) {
+				pendingChanges.add(() -> remove(names, postings, id));
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return names.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	private String catalogState() {
+		ProductCatalogStateProjection state = repository.searchCatalogState();
+		return state.getCount() + ":" + state.getMaxId() + ":" + state.getVersionSum();
+	}
+
+	private void setPendingChanges(List<Runnable> changes) {
+		lock.writeLock().lock();
+		try {
+			pendingChanges = changes;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static void add(Map<Long, String> names,Map<String, PostingList> postings, Long id, String name) {
+		String key = normalize(name);
+		names.put(id, key);
+		for (String gram : grams(key)) {
+			postings.computeIfAbsent(gram, x -> new PostingList()).add(id);
+		}
+	}
+
+	private static void remove(Map<Long, String> names, Map<String, PostingList> postings, Long id) {
+		String key = names.remove(id);
+		if (key == null) {
+			return;
+		}
+		for (String gram : grams(key)) {
+			PostingList list = postings.get(gram);
+			if (list != null) {
+				list.remove(id);
+				if (list.size() == 0) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	private static boolean containsInAll(List<PostingList> lists, long id) {
+		for (int i = 1; i < lists.size(); i++) {
+			if (!lists.get(i).contains(id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Set<String> grams(String key) {
+		Set<String> result = new LinkedHashSet<>();
+		for (int i = 0; i + GRAM_SIZE <= key.length(); i++) {
+			result.add(key.substring(i, i + GRAM_SIZE));
+		}
+		return result;
+	}
+
+	private static String normalize(String text) {
+		return text == null ? "" : text.toUpperCase(Locale.ROOT);
+	}
+
+	private static class PostingList {
+
+		private long[] ids = new long[4];
+		private int size;
+
+		int size() {
+			return size;
+		}
+
+		long get(int index) {
+			return ids[index];
+		}
+
+		boolean contains(long id) {
+			return Arrays.binarySearch(ids, 0, size, id) >= 0;
+		}
+
+		void add(long id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos >= 0) {
+				return;
+			}
+			pos = -pos - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+			ids[pos] = id;
+			size++;
+		}
+
+		void remove(long id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos < 0) {
+				return;
+			}
+			System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+			size--;
+		}
+	}
+}
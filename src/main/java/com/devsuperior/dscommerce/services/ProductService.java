@@ -1,20 +1,47 @@
 package com.devsuperior.dscommerce.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.devsuperior.dscommerce.config.CacheConfig;
 import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.ProductBatchDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductDescriptionProjection;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
+import com.devsuperior.dscommerce.services.exceptions.InvalidRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -22,20 +49,124 @@ import jakarta.persistence.EntityNotFoundException;
 @Service
 public class ProductService {
 
+    private static final Sort ID_ORDER = Sort.by("id");
+
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductCountCache countCache;
+
+    @Value("${product.search.max-indexed-matches}")
+    private int maxIndexedMatches;
+
+    @Value("${product.cursor.max-size}")
+    private int maxCursorSize;
+
+    @Value("${product.batch.max-size}")
+    private int maxBatchSize;
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
-        Product product = repository.findById(id).orElseThrow(
+        return loadById(id);
+    }
+
+    @CachePut(cacheNames = CacheConfig.PRODUCTS, key = "#id")
+    @Transactional(readOnly = true)
+    public ProductDTO reloadById(Long id) {
+        return loadById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductBatchDTO findAllById(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty() || requested.size() > maxBatchSize) {
+            throw new InvalidRequestException("Quantidade de ids inválida: " + requested.size());
+        }
+        Map<Long, Product> products = repository.searchWithCategoriesByIds(requested).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, String> descriptions = new HashMap<>();
+        for (ProductDescriptionProjection row : repository.searchDescriptionsByIds(products.keySet())) {
+            descriptions.put(row.getId(), row.getDescription());
+        }
+        List<ProductDTO> content = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            Product product = products.get(id);
+            if (product == null) {
+                missingIds.add(id);
+            }
+            else {
+                content.add(new ProductDTO(product, descriptions.get(id)));
+            }
+        }
+        return new ProductBatchDTO(content, missingIds);
+    }
+
+    @Transactional(readOnly = true)
+    public Integer findVersionById(Long id) {
+        return repository.findVersionById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado"));
-        return new ProductDTO(product);
     }
 
     @Transactional(readOnly = true)
     public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
-        Page<Product> result = repository.searchByName(name, pageable);
-        return result.map(x -> new ProductMinDTO(x));
+        Optional<List<Long>> matches = searchIndexMatches(name, pageable);
+        if (matches.isPresent()) {
+            List<Long> ids = matches.get();
+            return new PageImpl<>(searchByIds(ids, pageable), pageable, ids.size());
+        }
+        return repository.searchByName(name, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductMinDTO> findAll(String name, Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return findAll(name, pageable);
+        }
+        Optional<List<Long>> matches = searchIndexMatches(name, pageable);
+        if (matches.isPresent()) {
+            List<Long> ids = matches.get();
+            List<ProductMinDTO> result = searchByIds(ids, pageable);
+            if (countMode == CountMode.NONE) {
+                boolean hasNext = pageable.getOffset() + pageable.getPageSize() < ids.size();
+                return new SliceImpl<>(result, pageable, hasNext);
+            }
+            return new PageImpl<>(result, pageable, ids.size());
+        }
+        Slice<ProductMinDTO> result = repository.searchSliceByName(name, pageable);
+        if (countMode == CountMode.NONE) {
+            return result;
+        }
+        return new PageImpl<>(result.getContent(), pageable, estimateCount(name));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductMinDTO> findAllAfter(String name, String sort, String after, int size) {
+        if (size < 1 || size > maxCursorSize) {
+            throw new InvalidRequestException("Tamanho de página inválido: " + size);
+        }
+        ProductCursor cursor = ProductCursor.decode(sort, after);
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<ProductMinDTO> result = switch (cursor.getSort()) {
+            case ProductCursor.SORT_NAME -> repository.searchByNameAfterName(name, cursor.getName(), cursor.getId(), limit);
+            case ProductCursor.SORT_PRICE -> repository.searchByNameAfterPrice(name, cursor.getPrice(), cursor.getId(), limit);
+            default -> repository.searchByNameAfterId(name, cursor.getId(), limit);
+        };
+        String nextCursor = null;
+        if (result.size() > size) {
+            result = result.subList(0, size);
+            nextCursor = ProductCursor.after(cursor.getSort(), result.get(size - 1)).encode();
+        }
+        return new CursorPageDTO<>(result, result.size(), nextCursor);
     }
 
     @Transactional
@@ -43,15 +174,18 @@ public class ProductService {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = repository.save(entity);
+        updateSearchIndex(entity);
         return new ProductDTO(entity);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional
     public ProductDTO update(Long id, ProductDTO dto) {
         try {
             Product entity = repository.getReferenceById(id);
             copyDtoToEntity(dto, entity);
             entity = repository.save(entity);
+            updateSearchIndex(entity);
             return new ProductDTO(entity);
         }
         catch (EntityNotFoundException e) {
@@ -59,13 +193,18 @@ public class ProductService {
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
     	if (!repository.existsById(id)) {
     		throw new ResourceNotFoundException("Recurso não encontrado");
     	}
     	try {
-            repository.deleteById(id);    		
+            repository.deleteById(id);
+            afterCommit(() -> {
+                searchIndex.remove(id);
+                countCache.invalidate();
+            });
     	}
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
@@ -79,10 +218,83 @@ public class ProductService {
         entity.setImgUrl(dto.getImgUrl());
         
         entity.getCategories().clear();
-        for (CategoryDTO catDto : dto.getCategories()) {
-        	Category cat = new Category();
-        	cat.setId(catDto.getId());
-        	entity.getCategories().add(cat);
+        entity.getCategories().addAll(findCategories(dto.getCategories()));
+    }
+
+    private List<Category> findCategories(List<CategoryDTO> dtos) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (CategoryDTO catDto : dtos) {
+            ids.add(catDto.getId());
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.contains(null)) {
+            throw new InvalidRequestException("Categoria sem id");
+        }
+        List<Category> categories = categoryRepository.findAllById(ids);
+        if (categories.size() < ids.size()) {
+            for (Category cat : categories) {
+                ids.remove(cat.getId());
+            }
+            throw new InvalidRequestException("Categorias não encontradas: " + ids);
+        }
+        return categories;
+    }
+
+    private ProductDTO loadById(Long id) {
+        Product product = repository.findById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado"));
+        return new ProductDTO(product);
+    }
+
+    private Optional<List<Long>> searchIndexMatches(String name, Pageable pageable) {
+        return searchIndex.search(name).filter(ids -> isSortedById(pageable) || ids.size() <= maxIndexedMatches);
+    }
+
+    private List<ProductMinDTO> searchByIds(List<Long> ids, Pageable pageable) {
+        if (pageable.getOffset() >= ids.size()) {
+            return List.of();
+        }
+        if (isSortedById(pageable)) {
+            // index matches come in ascending id order, so the page is a slice of them
+            int from = (int) pageable.getOffset();
+            List<Long> page = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+            return repository.searchByIds(page, PageRequest.of(0, page.size(), ID_ORDER));
+        }
+        return repository.searchByIds(ids, pageable);
+    }
+
+    private static boolean isSortedById(Pageable pageable) {
+        return pageable.getSort().isUnsorted() || pageable.getSort().equals(ID_ORDER);
+    }
+
+    private long estimateCount(String name) {
+        if (name.isEmpty() && searchIndex.isReady()) {
+            return searchIndex.size();
+        }
+        return countCache.get(name, () -> repository.countByName(name));
+    }
+
+    private void updateSearchIndex(Product entity) {
+        Long id = entity.getId();
+        String name = entity.getName();
+        afterCommit(() -> {
+            searchIndex.put(id, name);
+            countCache.invalidate();
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -17,6 +17,7 @@ import com.devsuperior.dscommerce.entities.Role;
 import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.projections.UserDetailsProjection;
 import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.util.AuthenticatedUser;
 import com.devsuperior.dscommerce.util.CustomUserUtil;
 
 @Service
@@ -37,6 +38,7 @@ public class UserService implements UserDetailsService {
 		}
 		
 		User user = new User();
+		user.setId(result.get(0).getUserId());
 		user.setEmail(result.get(0).getUsername());
 		user.setPassword(result.get(0).getPassword());
 		for (UserDetailsProjection projection : result) {
@@ -46,6 +48,11 @@ public class UserService implements UserDetailsService {
 		return user;
 	}
 	
+	@Transactional
+	public void updatePassword(String email, String encodedPassword) {
+		repository.updatePassword(email, encodedPassword);
+	}
+	
 	protected User authenticated() {
 		try {
 			String username = customUserUtil.getLoggedUsername();
@@ -56,6 +63,34 @@ public class UserService implements UserDetailsService {
 		}
 	}
 	
+	/**
+	 * Returns the caller as described by the access token. Tokens issued before
+	 * the user_id claim existed fall back to a lookup by username.
+	 */
+	protected AuthenticatedUser authenticatedPrincipal() {
+		AuthenticatedUser principal;
+		try {
+			principal = customUserUtil.getAuthenticatedUser();
+		}
+		catch (Exception e) {
+			throw new UsernameNotFoundException("Invalid user");
+		}
+		if (principal.getId() == null) {
+			User user = repository.findByEmail(principal.getUsername()).orElseThrow(
+					() -> new UsernameNotFoundException("Invalid user"));
+			principal = principal.withId(user.getId());
+		}
+		return principal;
+	}
+	
+	/**
+	 * Returns a lazy reference to the caller's User, for associating it with
+	 * other entities without loading it.
+	 */
+	protected User authenticatedReference() {
+		return repository.getReferenceById(authenticatedPrincipal().getId());
+	}
+	
 	@Transactional(readOnly = true)
 	public UserDTO getMe() {
 		User entity = authenticated();
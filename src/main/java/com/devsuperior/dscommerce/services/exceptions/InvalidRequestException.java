@@ -0,0 +1,9 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+@SuppressWarnings("serial")
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String msg) {
+        super(msg);
+    }
+}
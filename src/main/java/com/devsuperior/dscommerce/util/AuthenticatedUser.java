@@ -0,0 +1,50 @@
+package com.devsuperior.dscommerce.util;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The caller of the current request as described by its access token. It is
+ * built from JWT claims only, so ownership and role checks need no database
+ * access.
+ */
+public class AuthenticatedUser {
+
+	private final Long id;
+	private final String username;
+	private final AuthoritySet authorities;
+
+	public AuthenticatedUser(Long id, String username, Collection<String> authorities) {
+		this(id, username, AuthoritySet.of(authorities));
+	}
+
+	private AuthenticatedUser(Long id, String username, AuthoritySet authorities) {
+		this.id = id;
+		this.username = username;
+		this.authorities = authorities;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public Set<String> getAuthorities() {
+		return authorities.names();
+	}
+
+	public boolean hasRole(String roleName) {
+		return authorities.contains(roleName);
+	}
+
+	public boolean hasRole(Authority authority) {
+		return authorities.contains(authority);
+	}
+
+	public AuthenticatedUser withId(Long id) {
+		return new AuthenticatedUser(id, username, authorities);
+	}
+}
@@ -0,0 +1,15 @@
+package com.devsuperior.dscommerce.util;
+
+public enum Authority {
+
+	ROLE_CLIENT, ROLE_ADMIN;
+
+	public static Authority of(String authority) {
+		for (Authority value : values()) {
+			if (value.name().equals(authority)) {
+				return value;
+			}
+		}
+		return null;
+	}
+}
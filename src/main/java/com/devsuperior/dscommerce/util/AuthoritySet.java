@@ -0,0 +1,79 @@
+package com.devsuperior.dscommerce.util;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable set of authorities resolved once from role names. Known
+ * {@link Authority} values are kept as a bit mask, so role checks are a single
+ * bitwise test; names outside the enum are kept as they are and still show up
+ * in {@link #names()} and {@link #grantedAuthorities()}.
+ */
+public final class AuthoritySet {
+
+	public static final AuthoritySet EMPTY = new AuthoritySet(0, Set.of());
+
+	private final int mask;
+	private final Set<String> others;
+	private final Set<String> names;
+	private final List<GrantedAuthority> grantedAuthorities;
+
+	private AuthoritySet(int mask, Set<String> others) {
+		this.mask = mask;
+		this.others = others;
+		Set<String> all = new LinkedHashSet<>();
+		for (Authority authority : Authority.values()) {
+			if ((mask & bit(authority)) != 0) {
+				all.add(authority.name());
+			}
+		}
+		all.addAll(others);
+		this.names = Set.copyOf(all);
+		this.grantedAuthorities = all.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+	}
+
+	public static AuthoritySet of(Collection<String> authorities) {
+		int mask = 0;
+		Set<String> others = new LinkedHashSet<>();
+		for (String name : authorities) {
+			Authority authority = Authority.of(name);
+			if (authority != null) {
+				mask |= bit(authority);
+			}
+			else if (name != null) {
+				others.add(name);
+			}
+		}
+		return new AuthoritySet(mask, Set.copyOf(others));
+	}
+
+	public static AuthoritySet ofGranted(Collection<? extends GrantedAuthority> authorities) {
+		return of(authorities.stream().map(GrantedAuthority::getAuthority).toList());
+	}
+
+	public boolean contains(Authority authority) {
+		return (mask & bit(authority)) != 0;
+	}
+
+	public boolean contains(String authority) {
+		Authority known = Authority.of(authority);
+		return known != null ? contains(known) : others.contains(authority);
+	}
+
+	public Set<String> names() {
+		return names;
+	}
+
+	public List<GrantedAuthority> grantedAuthorities() {
+		return grantedAuthorities;
+	}
+
+	private static int bit(Authority authority) {
+		return 1 << authority.ordinal();
+	}
+}
@@ -0,0 +1,86 @@
+package com.devsuperior.dscommerce.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: comma separated, fields optionally
+ * quoted, {@code ""} inside quotes for a literal quote and line breaks allowed
+ * inside quoted fields. Only the current record is held in memory.
+ */
+public class CsvReader {
+
+	private final BufferedReader reader;
+	private long lineNumber;
+	private long recordLine;
+
+	public CsvReader(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Returns the fields of the next record, or {@code null} at the end of the
+	 * input. An unterminated quoted field runs to the end of the input.
+	 */
+	public List<String> next() throws IOException {
+		String line = reader.readLine();
+		if (line == null) {
+			return null;
+		}
+		recordLine = ++lineNumber;
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int i = 0;
+		while (true) {
+			if (i == line.length()) {
+				if (!quoted) {
+					break;
+				}
+				String nextLine = reader.readLine();
+				if (nextLine == null) {
+					break;
+				}
+				lineNumber++;
+				field.append('\n');
+				line = nextLine;
+				i = 0;
+				continue;
+			}
+			char c = line.charAt(i++);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				}
+				else if (i < line.length() && line.charAt(i) == '"') {
+					field.append('"');
+					i++;
+				}
+				else {
+					quoted = false;
+				}
+			}
+			else if (c == '"') {
+				quoted = true;
+			}
+			else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * Line on which the record last returned by {@link #next()} starts.
+	 */
+	public long getRecordLine() {
+		return recordLine;
+	}
+}
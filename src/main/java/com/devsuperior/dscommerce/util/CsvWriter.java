@@ -0,0 +1,41 @@
+package com.devsuperior.dscommerce.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 records in the form {@link CsvReader} reads back: fields
+ * holding a comma, a quote or a line break are quoted, with inner quotes
+ * doubled, and {@code null} is written as an empty field.
+ */
+public class CsvWriter {
+
+	private final Writer writer;
+
+	public CsvWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	public void writeRecord(String... fields) throws IOException {
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writeField(fields[i]);
+		}
+		writer.write("\r\n");
+	}
+
+	private void writeField(String field) throws IOException {
+		if (field == null) {
+			return;
+		}
+		if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+			writer.write(field);
+			return;
+		}
+		writer.write('"');
+		writer.write(field.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
@@ -1,5 +1,7 @@
 package com.devsuperior.dscommerce.util;
 
+import java.util.List;
+
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -8,9 +10,22 @@ import org.springframework.stereotype.Component;
 @Component
 public class CustomUserUtil {
 	
+	public static final String USER_ID_CLAIM = "user_id";
+	
 	public String getLoggedUsername() {
+		return getJwt().getClaim("username");
+	}
+	
+	public AuthenticatedUser getAuthenticatedUser() {
+		Jwt jwt = getJwt();
+		Number id = jwt.getClaim(USER_ID_CLAIM);
+		List<String> authorities = jwt.getClaimAsStringList("authorities");
+		return new AuthenticatedUser(id == null ? null : id.longValue(), jwt.getClaim("username"),
+				authorities == null ? List.of() : authorities);
+	}
+	
+	private Jwt getJwt() {
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-		Jwt jwtPrincipal = (Jwt) authentication.getPrincipal();
-		return jwtPrincipal.getClaim("username");
+		return (Jwt) authentication.getPrincipal();
 	}
 }
@@ -0,0 +1,77 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import com.devsuperior.dscommerce.config.customgrant.ExpiringOAuth2AuthorizationService;
+
+/**
+ * Saves one authorization per simulated password-grant login and reports the
+ * live heap as logins accumulate, for the previous unbounded in-memory store
+ * and for {@link ExpiringOAuth2AuthorizationService}. Not part of the regular
+ * build; run with {@code mvn test -Pbenchmarks -Dtest=AuthorizationStoreSoakBenchmark}.
+ */
+public class AuthorizationStoreSoakBenchmark {
+
+	private static final int LEGACY_LOGINS = 500_000;
+	private static final int LOGINS = 3_000_000;
+	private static final int REPORT_EVERY = 250_000;
+	private static final long STORE_SIZE = 100_000;
+
+	private final RegisteredClient client = RegisteredClient.withId("1")
+			.clientId("myclientid")
+			.authorizationGrantType(new AuthorizationGrantType("password"))
+			.build();
+
+	@Test
+	void heapByLogins() {
+		System.out.println("in-memory (unbounded)");
+		soak(new InMemoryOAuth2AuthorizationService(), LEGACY_LOGINS);
+
+		System.out.println("expiring, max-size=" + STORE_SIZE);
+		soak(new ExpiringOAuth2AuthorizationService(STORE_SIZE, Duration.ofDays(1)), LOGINS);
+	}
+
+	private void soak(OAuth2AuthorizationService store, int logins) {
+		long baseline = usedHeap();
+		System.out.printf("%10s %12s %10s%n", "logins", "heap (MB)", "ns/save");
+		long start = System.nanoTime();
+		for (int i = 1; i <= logins; i++) {
+			store.save(authorization());
+			if (i % REPORT_EVERY == 0) {
+				long nanos = (System.nanoTime() - start) / REPORT_EVERY;
+				System.out.printf("%10d %12d %10d%n", i, (usedHeap() - baseline) / 1_048_576, nanos);
+				start = System.nanoTime();
+			}
+		}
+	}
+
+	private OAuth2Authorization authorization() {
+		Instant now = Instant.now();
+		OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+				UUID.randomUUID().toString(), now, now.plus(Duration.ofDays(1)));
+		return OAuth2Authorization.withRegisteredClient(client)
+				.id(UUID.randomUUID().toString())
+				.principalName("myclientid")
+				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.token(accessToken, metadata -> metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME,
+						Map.of("username", "maria@gmail.com", "authorities", "ROLE_CLIENT")))
+				.build();
+	}
+
+	private static long usedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,67 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import com.devsuperior.dscommerce.config.CachingJwtDecoder;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+/**
+ * Compares bearer token decode throughput of the plain Nimbus decoder and of
+ * {@link CachingJwtDecoder} while a pool of sessions keeps resending their
+ * tokens. Not part of the regular build; run with
+ * {@code mvn test -Pbenchmarks -Dtest=JwtDecoderBenchmark}.
+ */
+public class JwtDecoderBenchmark {
+
+	private static final int[] SESSIONS = {1, 100, 10_000};
+	private static final int ITERATIONS = 50_000;
+
+	@Test
+	void decodeThroughputBySessionCount() throws Exception {
+		RSAKey key = new RSAKeyGenerator(2048).keyID("bench").generate();
+		JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(new JWKSet(key));
+		NimbusJwtEncoder encoder = new NimbusJwtEncoder(jwkSource);
+
+		System.out.printf("%10s %16s %16s%n", "sessions", "plain (ops/s)", "cached (ops/s)");
+		for (int sessions : SESSIONS) {
+			List<String> tokens = new ArrayList<>();
+			for (int i = 0; i < sessions; i++) {
+				JwtClaimsSet claims = JwtClaimsSet.builder()
+						.subject("user" + i + "@gmail.com")
+						.issuedAt(Instant.now())
+						.expiresAt(Instant.now().plusSeconds(3600))
+						.claim("authorities", List.of("ROLE_CLIENT"))
+						.build();
+				tokens.add(encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue());
+			}
+			JwtDecoder plain = OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+			JwtDecoder cached = new CachingJwtDecoder(OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource), 10_000);
+			System.out.printf("%10d %16d %16d%n", sessions, measure(plain, tokens), measure(cached, tokens));
+		}
+	}
+
+	private static long measure(JwtDecoder decoder, List<String> tokens) {
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			decoder.decode(tokens.get(i % tokens.size()));
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			decoder.decode(tokens.get(i % tokens.size()));
+		}
+		return ITERATIONS * 1_000_000_000L / (System.nanoTime() - start);
+	}
+}
@@ -0,0 +1,77 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.devsuperior.dscommerce.config.JwkSetLoader;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+/**
+ * Compares the cost of issuing and verifying access tokens signed with RS256
+ * and ES256, and the size of the resulting tokens. Not part of the regular
+ * build; run with {@code mvn test -Pbenchmarks -Dtest=JwtSigningBenchmark}.
+ */
+public class JwtSigningBenchmark {
+
+	private static final int ITERATIONS = 5_000;
+
+	@Test
+	void signAndVerifyCostByAlgorithm() throws Exception {
+		System.out.printf("%6s %14s %15s %13s%n", "alg", "issue (us/op)", "verify (us/op)", "token (bytes)");
+		run(SignatureAlgorithm.RS256, new RSAKeyGenerator(2048).keyID("rsa").generate());
+		run(SignatureAlgorithm.ES256, new ECKeyGenerator(Curve.P_256).keyID("ec").generate());
+	}
+
+	private static void run(SignatureAlgorithm algorithm, JWK key) {
+		JWKSet jwkSet = new JWKSet(key);
+		NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(jwkSet));
+		DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+		processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JwkSetLoader.verificationAlgorithms(jwkSet),
+				new ImmutableJWKSet<>(jwkSet)));
+		NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+
+		JwsHeader header = JwsHeader.with(algorithm).build();
+		JwtClaimsSet claims = JwtClaimsSet.builder()
+				.issuer("http://localhost:8080")
+				.subject("myclientid")
+				.issuedAt(Instant.now())
+				.expiresAt(Instant.now().plusSeconds(86400))
+				.claim("authorities", List.of("ROLE_CLIENT", "ROLE_ADMIN"))
+				.claim("username", "alex@gmail.com")
+				.claim("user_id", 2L)
+				.build();
+		JwtEncoderParameters parameters = JwtEncoderParameters.from(header, claims);
+		String token = encoder.encode(parameters).getTokenValue();
+
+		long issue = measure(() -> encoder.encode(parameters));
+		long verify = measure(() -> decoder.decode(token));
+		System.out.printf("%6s %14d %15d %13d%n", algorithm.getName(), issue, verify, token.length());
+	}
+
+	private static long measure(Runnable action) {
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			action.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			action.run();
+		}
+		return (System.nanoTime() - start) / ITERATIONS / 1_000;
+	}
+}
@@ -0,0 +1,105 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Measures {@code GET /products} latency while a burst of password grants
+ * hits the token endpoint, and counts how the logins were answered. Clients
+ * honour {@code Retry-After} when they are shed. Compare
+ * runs with different hashing pools, e.g.
+ * {@code mvn test -Pbenchmarks -Dtest=LoginStormBenchmark -DargLine="-Dsecurity.login.hash-threads=64 -Dsecurity.login.queue-capacity=1000"}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+public class LoginStormBenchmark {
+
+	private static final int LOGIN_THREADS = 64;
+	private static final int CATALOG_REQUESTS = 300;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Value("${security.client-id}")
+	private String clientId;
+
+	@Value("${security.client-secret}")
+	private String clientSecret;
+
+	@Value("${security.login.hash-threads}")
+	private int hashThreads;
+
+	@Test
+	void catalogLatencyDuringLoginStorm() throws Exception {
+		long[] idle = catalogLatencies();
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		Map<Integer, AtomicInteger> logins = new ConcurrentHashMap<>();
+		ExecutorService storm = Executors.newFixedThreadPool(LOGIN_THREADS);
+		for (int i = 0; i < LOGIN_THREADS; i++) {
+			String username = (i % 2 == 0) ? "maria@gmail.com" : "alex@gmail.com";
+			storm.submit(() -> {
+				while (running.get()) {
+					MockHttpServletResponse response = mockMvc.perform(post("/oauth2/token")
+							.param("grant_type", "password")
+							.param("username", username)
+							.param("password", "123456")
+							.with(httpBasic(clientId, clientSecret)))
+							.andReturn().getResponse();
+					logins.computeIfAbsent(response.getStatus(), x -> new AtomicInteger()).incrementAndGet();
+					String retryAfter = response.getHeader("Retry-After");
+					if (retryAfter != null) {
+						Thread.sleep(Long.parseLong(retryAfter) * 1_000);
+					}
+				}
+				return null;
+			});
+		}
+		Thread.sleep(1_000);
+		long[] loaded = catalogLatencies();
+		running.set(false);
+		storm.shutdown();
+		storm.awaitTermination(1, TimeUnit.MINUTES);
+
+		System.out.printf("hash threads: %s, logins by status: %s%n", hashThreads > 0 ? hashThreads : "half the CPUs", logins);
+		System.out.printf("%8s %10s %10s%n", "catalog", "p50 (ms)", "p99 (ms)");
+		System.out.printf("%8s %10.1f %10.1f%n", "idle", percentile(idle, 50), percentile(idle, 99));
+		System.out.printf("%8s %10.1f %10.1f%n", "storm", percentile(loaded, 50), percentile(loaded, 99));
+	}
+
+	private long[] catalogLatencies() throws Exception {
+		List<Long> samples = new ArrayList<>();
+		for (int i = 0; i < CATALOG_REQUESTS; i++) {
+			long start = System.nanoTime();
+			mockMvc.perform(get("/products?page=" + (i % 3))).andReturn();
+			samples.add(System.nanoTime() - start);
+		}
+		return samples.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	private static double percentile(long[] samples, int percentile) {
+		long[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1_000_000.0;
+	}
+}
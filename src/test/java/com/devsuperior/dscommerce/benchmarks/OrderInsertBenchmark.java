@@ -0,0 +1,153 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.services.OrderService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Compares the statements and latency of {@code POST /orders} for B2B-sized
+ * orders through the previous per-item path (getReferenceById + per-item merge) and
+ * through {@link OrderService#insert}. Not part of the regular build; run with
+ * {@code mvn test -Pbenchmarks -Dtest=OrderInsertBenchmark}.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+public class OrderInsertBenchmark {
+
+	private static final int[] ORDER_LINES = {1, 10, 40};
+	private static final int ITERATIONS = 200;
+
+	@Autowired
+	private OrderService service;
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Jwt jwt = Jwt.withTokenValue("benchmark").header("alg", "none").claim("username", "maria@gmail.com").build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void insertByOrderSize() {
+		insertProducts(ORDER_LINES[ORDER_LINES.length - 1] - (int) productRepository.count());
+
+		System.out.printf("%6s %16s %14s %16s %14s%n", "lines", "legacy (stmts)", "legacy (us)", "batched (stmts)", "batched (us)");
+		for (int lines : ORDER_LINES) {
+			OrderDTO dto = orderDTO(lines);
+			Result legacy = measure(() -> legacyInsert(dto));
+			Result batched = measure(() -> service.insert(dto));
+			System.out.printf("%6d %16d %14d %16d %14d%n", lines, legacy.statements, legacy.micros, batched.statements, batched.micros);
+		}
+	}
+
+	private OrderDTO legacyInsert(OrderDTO dto) {
+		return transactionTemplate.execute(status -> {
+			Order order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, currentUser(), null);
+			repository.save(order);
+			List<OrderItem> items = new ArrayList<>();
+			for (OrderItemDTO itemDto : dto.getItems()) {
+				Product product = productRepository.getReferenceById(itemDto.getProductId());
+				items.add(new OrderItem(order, product, itemDto.getQuantity(), product.getPrice()));
+			}
+			// items stay out of order.getItems() so the PERSIST cascade does not insert them a second time;
+			// merge is what the former OrderItemRepository.saveAll did for their assigned composite ids
+			items.forEach(entityManager::merge);
+			return new OrderDTO(order);
+		});
+	}
+
+	private void insertProducts(int count) {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(new Object[] {"Benchmark product " + i, 100.0 + i, "Benchmark product " + i, "https://example.com/" + i + ".jpg"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)", rows);
+	}
+
+	private User currentUser() {
+		return userRepository.findByEmail("maria@gmail.com").orElseThrow();
+	}
+
+	private OrderDTO orderDTO(int lines) {
+		Order order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, new User(), null);
+		for (long id = 1; id <= lines; id++) {
+			Product product = new Product(id, null, null, null, null);
+			order.getItems().add(new OrderItem(order, product, 1, null));
+		}
+		return new OrderDTO(order);
+	}
+
+	private Result measure(Supplier<OrderDTO> action) {
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			action.get();
+		}
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			action.get();
+		}
+		long micros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+		return new Result(statistics.getPrepareStatementCount() / ITERATIONS, micros);
+	}
+
+	private record Result(long statements, long micros) {
+	}
+}
@@ -0,0 +1,71 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import com.devsuperior.dscommerce.config.CacheConfig;
+import com.devsuperior.dscommerce.services.ProductService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Compares the statements and latency of loading a cart-sized set of products
+ * through one {@link ProductService#findById} call per id, with the product
+ * cache cleared, against a single {@link ProductService#findAllById}. Not part
+ * of the regular build; run with {@code mvn test -Pbenchmarks -Dtest=ProductBatchBenchmark}.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+public class ProductBatchBenchmark {
+
+	private static final int[] BATCH_SIZES = {1, 10, 25};
+	private static final int ITERATIONS = 200;
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void loadByBatchSize() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		System.out.printf("%6s %16s %14s %14s %12s%n", "ids", "single (stmts)", "single (us)", "batch (stmts)", "batch (us)");
+		for (int size : BATCH_SIZES) {
+			List<Long> ids = LongStream.rangeClosed(1, size).boxed().toList();
+			Result single = measure(statistics, () -> ids.forEach(id -> {
+				cacheManager.getCache(CacheConfig.PRODUCTS).evict(id);
+				service.findById(id);
+			}));
+			Result batch = measure(statistics, () -> service.findAllById(ids));
+			System.out.printf("%6d %16d %14d %14d %12d%n", size, single.statements, single.micros, batch.statements, batch.micros);
+		}
+	}
+
+	private Result measure(Statistics statistics, Runnable action) {
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			action.run();
+		}
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			action.run();
+		}
+		long micros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+		return new Result(statistics.getPrepareStatementCount() / ITERATIONS, micros);
+	}
+
+	private record Result(long statements, long micros) {
+	}
+}
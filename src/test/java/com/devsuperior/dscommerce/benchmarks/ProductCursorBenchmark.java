@@ -0,0 +1,85 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.ProductCursor;
+import com.devsuperior.dscommerce.services.ProductService;
+
+/**
+ * Compares {@code GET /products} latency at increasing depths through OFFSET
+ * paging and through the cursor ({@code after=}) mode. Not part of the regular
+ * build; run with {@code mvn test -Pbenchmarks -Dtest=ProductCursorBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ProductCursorBenchmark {
+
+	private static final int CATALOG_SIZE = 200_000;
+	private static final int PAGE_SIZE = 12;
+	private static final int[] PAGES = {0, 100, 1_000, 5_000, 15_000};
+	private static final int ITERATIONS = 20;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private ProductService service;
+
+	@Test
+	void pageLatencyByDepth() {
+		insertProducts(CATALOG_SIZE - (int) repository.count());
+
+		System.out.printf("%8s %16s %16s%n", "page", "offset (us/op)", "cursor (us/op)");
+		for (String sort : List.of(ProductCursor.SORT_ID, ProductCursor.SORT_NAME)) {
+			System.out.println("sort=" + sort);
+			for (int page : PAGES) {
+				Pageable pageable = PageRequest.of(page, PAGE_SIZE, Sort.by(sort, "id"));
+				String cursor = cursorBefore(sort, page);
+				long offset = measure(() -> service.findAll("", pageable));
+				long seek = measure(() -> service.findAllAfter("", sort, cursor, PAGE_SIZE));
+				System.out.printf("%8d %16d %16d%n", page, offset, seek);
+			}
+		}
+	}
+
+	private String cursorBefore(String sort, int page) {
+		if (page == 0) {
+			return "";
+		}
+		Pageable previous = PageRequest.of(page * PAGE_SIZE - 1, 1, Sort.by(sort, "id"));
+		ProductMinDTO last = repository.searchByName("", previous).getContent().get(0);
+		return ProductCursor.after(sort, last).encode();
+	}
+
+	private void insertProducts(int count) {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(new Object[] {"Product " + (i * 7919 % count), 1000.0 + i % 1000, "Benchmark product " + i, "https://example.com/" + i + ".jpg"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)", rows);
+	}
+
+	private static long measure(Runnable action) {
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			action.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			action.run();
+		}
+		return (System.nanoTime() - start) / ITERATIONS / 1_000;
+	}
+}
@@ -0,0 +1,92 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscommerce.services.ProductExportService;
+
+/**
+ * Exports growing catalogs to a discarding stream and reports throughput and
+ * the heap in use above the pre-export baseline, sampled after a GC every few
+ * megabytes of output; the latter should stay flat as the catalog grows. Not
+ * part of the regular build; run with
+ * {@code mvn test -Pbenchmarks -Dtest=ProductExportBenchmark}.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.devsuperior.dscommerce.services=warn"})
+public class ProductExportBenchmark {
+
+	private static final int[] CATALOG_SIZES = {50_000, 200_000, 400_000};
+	private static final long SAMPLE_BYTES = 8 * 1024 * 1024;
+
+	@Autowired
+	private ProductExportService service;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void heapByCatalogSize() throws IOException {
+		System.out.printf("%10s %8s %12s %14s %16s%n", "products", "format", "rows/s", "output (MB)", "max heap (MB)");
+		int inserted = 0;
+		for (int size : CATALOG_SIZES) {
+			insertProducts(inserted, size);
+			inserted = size;
+			// the first query over new rows grows H2's own in-memory structures; keep that out of the baseline
+			service.exportProducts(OutputStream.nullOutputStream(), MediaType.APPLICATION_NDJSON);
+			for (MediaType type : List.of(MediaType.parseMediaType("text/csv"), MediaType.APPLICATION_NDJSON)) {
+				HeapSamplingStream out = new HeapSamplingStream();
+				long start = System.nanoTime();
+				long count = service.exportProducts(out, type);
+				long rate = count * 1_000_000_000L / (System.nanoTime() - start);
+				System.out.printf("%10d %8s %12d %14d %16d%n", count, type.getSubtype(), rate, out.bytes >> 20,
+						(out.maxUsed - out.baseline) >> 20);
+			}
+		}
+	}
+
+	private void insertProducts(int from, int to) {
+		for (int start = from; start < to; start += 10_000) {
+			List<Object[]> rows = new ArrayList<>();
+			for (int i = start; i < Math.min(start + 10_000, to); i++) {
+				rows.add(new Object[] {"Benchmark product " + i, 100.0 + i, "Benchmark product description " + i, "https://example.com/" + i + ".jpg"});
+			}
+			jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)", rows);
+		}
+	}
+
+	private static class HeapSamplingStream extends OutputStream {
+
+		private final long baseline = usedHeap();
+		private long maxUsed = baseline;
+		private long bytes;
+		private long nextSample = SAMPLE_BYTES;
+
+		@Override
+		public void write(int b) {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+			if (bytes >= nextSample) {
+				nextSample += SAMPLE_BYTES;
+				maxUsed = Math.max(maxUsed, usedHeap());
+			}
+		}
+
+		private static long usedHeap() {
+			System.gc();
+			Runtime runtime = Runtime.getRuntime();
+			return runtime.totalMemory() - runtime.freeMemory();
+		}
+	}
+}
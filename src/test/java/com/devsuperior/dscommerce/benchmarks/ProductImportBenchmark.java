@@ -0,0 +1,60 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductImportDTO;
+import com.devsuperior.dscommerce.services.ProductImportService;
+import com.devsuperior.dscommerce.services.ProductService;
+
+/**
+ * Compares the sustained rows per second of catalog onboarding through one
+ * {@link ProductService#insert} per product and through the streaming
+ * {@link ProductImportService}. Not part of the regular build; run with
+ * {@code mvn test -Pbenchmarks -Dtest=ProductImportBenchmark}.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.devsuperior.dscommerce.services=warn"})
+public class ProductImportBenchmark {
+
+	private static final int SINGLE_ROWS = 2_000;
+	private static final int IMPORT_ROWS = 100_000;
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private ProductImportService importService;
+
+	@Test
+	void rowsPerSecond() throws IOException {
+		long start = System.nanoTime();
+		for (int i = 0; i < SINGLE_ROWS; i++) {
+			ProductDTO dto = new ProductDTO(null, "Single product " + i, "Benchmark product description " + i, 100.0 + i, null);
+			dto.getCategories().add(new CategoryDTO(1L, null));
+			service.insert(dto);
+		}
+		long singleRate = SINGLE_ROWS * 1_000_000_000L / (System.nanoTime() - start);
+
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < IMPORT_ROWS; i++) {
+			body.append("{\"name\":\"Imported product ").append(i)
+					.append("\",\"description\":\"Benchmark product description ").append(i)
+					.append("\",\"price\":").append(100.0 + i)
+					.append(",\"categories\":[{\"id\":1},{\"id\":2}]}\n");
+		}
+		ProductImportDTO result = importService.importProducts(
+				new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_NDJSON);
+
+		System.out.printf("%-20s %10s %10s%n", "path", "rows", "rows/s");
+		System.out.printf("%-20s %10d %10d%n", "POST /products", SINGLE_ROWS, singleRate);
+		System.out.printf("%-20s %10d %10d%n", "import (ndjson)", result.getImported(), result.getRowsPerSecond());
+	}
+}
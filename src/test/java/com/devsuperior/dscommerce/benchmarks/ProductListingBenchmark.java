@@ -0,0 +1,95 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Compares a 100-item product listing page loaded as managed entities and
+ * mapped to {@link ProductMinDTO} with the same page selected through the
+ * constructor projection. Reports latency and bytes allocated per page. Not
+ * part of the regular build; run with
+ * {@code mvn test -Pbenchmarks -Dtest=ProductListingBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ProductListingBenchmark {
+
+	private static final int CATALOG_SIZE = 10_000;
+	private static final int DESCRIPTION_LENGTH = 4_000;
+	private static final int PAGE_SIZE = 100;
+	private static final int ITERATIONS = 300;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	void entityVersusProjectionPage() {
+		insertProducts(CATALOG_SIZE - (int) repository.count());
+		transactionTemplate.setReadOnly(true);
+
+		Supplier<List<ProductMinDTO>> entities = () -> transactionTemplate.execute(status -> entityManager
+				.createQuery("SELECT obj FROM Product obj WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) ORDER BY obj.id", Product.class)
+				.setParameter("name", "")
+				.setFirstResult(0)
+				.setMaxResults(PAGE_SIZE)
+				.getResultList().stream().map(x -> new ProductMinDTO(x)).toList());
+		Pageable pageable = PageRequest.of(0, PAGE_SIZE).withSort(Sort.by("id"));
+		Supplier<List<ProductMinDTO>> projection = () -> transactionTemplate.execute(
+				status -> repository.searchSliceByName("", pageable).getContent());
+
+		System.out.printf("%12s %12s %16s%n", "query", "us/page", "KB alloc/page");
+		report("entity", entities);
+		report("projection", projection);
+	}
+
+	private void report(String label, Supplier<List<ProductMinDTO>> page) {
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			page.get();
+		}
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long allocated = threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			page.get();
+		}
+		long micros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+		long kb = (threads.getThreadAllocatedBytes(thread) - allocated) / ITERATIONS / 1_024;
+		System.out.printf("%12s %12d %16d%n", label, micros, kb);
+	}
+
+	private void insertProducts(int count) {
+		String description = "x".repeat(DESCRIPTION_LENGTH);
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(new Object[] {"Listing product " + i, 100.0 + i % 500, description, "https://example.com/" + i + ".jpg"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)", rows);
+	}
+}
@@ -0,0 +1,90 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.ProductSearchIndex;
+import com.devsuperior.dscommerce.services.ProductService;
+
+/**
+ * Compares {@code GET /products?name=} latency through the LIKE query and
+ * through the search index while the catalog grows. Not part of the regular
+ * build; run with {@code mvn test -Pbenchmarks -Dtest=ProductSearchBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ProductSearchBenchmark {
+
+	private static final int[] CATALOG_SIZES = {1_000, 10_000, 100_000, 200_000};
+	private static final int ITERATIONS = 200;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	private final Random random = new Random(42);
+
+	@Test
+	void searchLatencyByCatalogSize() {
+		Pageable pageable = PageRequest.of(0, 12);
+		List<String> skus = new ArrayList<>();
+
+		System.out.printf("%10s %14s %14s%n", "products", "like (us/op)", "index (us/op)");
+		int inserted = (int) repository.count();
+		for (int size : CATALOG_SIZES) {
+			inserted += insertProducts(size - inserted, skus);
+			searchIndex.rebuild();
+
+			String term = skus.get(random.nextInt(skus.size())).toLowerCase();
+			long like = measure(() -> repository.searchByName(term, pageable));
+			long index = measure(() -> service.findAll(term, pageable));
+			System.out.printf("%10d %14d %14d%n", inserted, like, index);
+		}
+	}
+
+	private int insertProducts(int count, List<String> skus) {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String sku = randomSku();
+			skus.add(sku);
+			rows.add(new Object[] {"PC Gamer " + sku, 1000.0 + i % 1000, "Benchmark product " + sku, "https://example.com/" + sku + ".jpg"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, description, img_url) VALUES (?, ?, ?, ?)", rows);
+		return count;
+	}
+
+	private String randomSku() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 8; i++) {
+			sb.append((char) ('A' + random.nextInt(26)));
+		}
+		return sb.toString();
+	}
+
+	private static long measure(Runnable action) {
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			action.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			action.run();
+		}
+		return (System.nanoTime() - start) / ITERATIONS / 1_000;
+	}
+}
@@ -0,0 +1,84 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the latency of a password grant with that of a refresh token grant
+ * on the token endpoint. Not part of the regular build; run with
+ * {@code mvn test -Pbenchmarks -Dtest=TokenRefreshBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+public class TokenRefreshBenchmark {
+
+	private static final int ITERATIONS = 50;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${security.client-id}")
+	private String clientId;
+
+	@Value("${security.client-secret}")
+	private String clientSecret;
+
+	@Test
+	void passwordGrantVersusRefreshGrant() throws Exception {
+		String refreshToken = grant(passwordGrant()).get("refresh_token").asText();
+		for (int i = 0; i < ITERATIONS / 10; i++) {
+			grant(passwordGrant());
+			refreshToken = grant(refreshGrant(refreshToken)).get("refresh_token").asText();
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			grant(passwordGrant());
+		}
+		long password = (System.nanoTime() - start) / ITERATIONS / 1_000;
+
+		start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			refreshToken = grant(refreshGrant(refreshToken)).get("refresh_token").asText();
+		}
+		long refresh = (System.nanoTime() - start) / ITERATIONS / 1_000;
+
+		System.out.printf("%10s %10s%n", "grant", "us/op");
+		System.out.printf("%10s %10d%n", "password", password);
+		System.out.printf("%10s %10d%n", "refresh", refresh);
+	}
+
+	private MockHttpServletRequestBuilder passwordGrant() {
+		return post("/oauth2/token")
+				.param("grant_type", "password")
+				.param("username", "maria@gmail.com")
+				.param("password", "123456")
+				.with(httpBasic(clientId, clientSecret));
+	}
+
+	private MockHttpServletRequestBuilder refreshGrant(String refreshToken) {
+		return post("/oauth2/token")
+				.param("grant_type", "refresh_token")
+				.param("refresh_token", refreshToken)
+				.with(httpBasic(clientId, clientSecret));
+	}
+
+	private JsonNode grant(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
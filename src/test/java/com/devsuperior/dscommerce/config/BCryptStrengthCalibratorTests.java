@@ -0,0 +1,40 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BCryptStrengthCalibratorTests {
+
+	private static final long PROBE_NANOS = Duration.ofMillis(4).toNanos();
+
+	@Test
+	public void strengthForShouldReturnHighestCostWithinTarget() {
+
+		Assertions.assertEquals(BCryptStrengthCalibrator.strengthFor(Duration.ofMillis(250), PROBE_NANOS), 11);
+		Assertions.assertEquals(BCryptStrengthCalibrator.strengthFor(Duration.ofMillis(256), PROBE_NANOS), 12);
+	}
+
+	@Test
+	public void strengthForShouldStayWithinBounds() {
+
+		Assertions.assertEquals(BCryptStrengthCalibrator.strengthFor(Duration.ofMillis(1), PROBE_NANOS), BCryptStrengthCalibrator.MIN_STRENGTH);
+		Assertions.assertEquals(BCryptStrengthCalibrator.strengthFor(Duration.ofHours(1), PROBE_NANOS), BCryptStrengthCalibrator.MAX_STRENGTH);
+	}
+
+	@Test
+	public void verifyNanosForShouldDoubleWithEachCostStep() {
+
+		Assertions.assertEquals(BCryptStrengthCalibrator.verifyNanosFor(10, PROBE_NANOS), Duration.ofMillis(64).toNanos());
+		Assertions.assertEquals(BCryptStrengthCalibrator.verifyNanosFor(11, PROBE_NANOS), Duration.ofMillis(128).toNanos());
+	}
+
+	@Test
+	public void calibrateShouldReturnStrengthWithinBounds() {
+
+		int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(100));
+
+		Assertions.assertTrue(strength >= BCryptStrengthCalibrator.MIN_STRENGTH && strength <= BCryptStrengthCalibrator.MAX_STRENGTH);
+	}
+}
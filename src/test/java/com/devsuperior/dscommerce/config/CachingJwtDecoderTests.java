@@ -0,0 +1,116 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CachingJwtDecoderTests {
+
+	private JwtDecoder delegate;
+	private AtomicReference<Instant> now;
+	private CachingJwtDecoder decoder;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		delegate = Mockito.mock(JwtDecoder.class);
+		// far from the real time, so an expiry measured against the system clock would not pass
+		now = new AtomicReference<>(Instant.parse("2040-01-01T00:00:00Z"));
+		Clock clock = Mockito.mock(Clock.class);
+		Mockito.when(clock.instant()).thenAnswer(x -> now.get());
+		decoder = new CachingJwtDecoder(delegate, 2, clock);
+	}
+
+	@Test
+	public void decodeShouldVerifyTokenOnlyOnceWhileItIsValid() {
+
+		Jwt jwt = jwt("token", now.get().plusSeconds(60));
+		Mockito.when(delegate.decode("token")).thenReturn(jwt);
+
+		Assertions.assertEquals(decoder.decode("token"), jwt);
+		Assertions.assertEquals(decoder.decode("token"), jwt);
+
+		Mockito.verify(delegate, Mockito.times(1)).decode("token");
+	}
+
+	@Test
+	public void decodeShouldVerifyAgainWhenTokenHasExpired() {
+
+		Jwt jwt = jwt("token", now.get().plusSeconds(60));
+		Mockito.when(delegate.decode("token")).thenReturn(jwt);
+
+		decoder.decode("token");
+		now.set(now.get().plusSeconds(61));
+		decoder.decode("token");
+
+		Mockito.verify(delegate, Mockito.times(2)).decode("token");
+	}
+
+	@Test
+	public void decodeShouldNotCacheTokenWithoutExpiration() {
+
+		Jwt jwt = jwt("token", null);
+		Mockito.when(delegate.decode("token")).thenReturn(jwt);
+
+		decoder.decode("token");
+		decoder.decode("token");
+
+		Mockito.verify(delegate, Mockito.times(2)).decode("token");
+		Assertions.assertEquals(decoder.size(), 0L);
+	}
+
+	@Test
+	public void decodeShouldNotCacheRejectedToken() {
+
+		Mockito.when(delegate.decode("forged")).thenThrow(new BadJwtException("Invalid signature"));
+
+		Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+		Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+
+		Mockito.verify(delegate, Mockito.times(2)).decode("forged");
+	}
+
+	@Test
+	public void decodeShouldKeepCacheWithinMaximumSize() {
+
+		for (int i = 0; i < 10; i++) {
+			String token = "token" + i;
+			Mockito.when(delegate.decode(token)).thenReturn(jwt(token, now.get().plusSeconds(60)));
+			decoder.decode(token);
+		}
+
+		Assertions.assertTrue(decoder.size() <= 2);
+	}
+
+	@Test
+	public void bindToShouldPublishCacheStatistics() {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Mockito.when(delegate.decode("token")).thenReturn(jwt("token", now.get().plusSeconds(60)));
+
+		decoder.bindTo(registry);
+		decoder.decode("token");
+		decoder.decode("token");
+
+		Assertions.assertEquals(registry.get("cache.gets").tags("cache", "jwtDecoder", "result", "hit").functionCounter().count(), 1.0);
+		Assertions.assertEquals(registry.get("cache.gets").tags("cache", "jwtDecoder", "result", "miss").functionCounter().count(), 1.0);
+	}
+
+	private static Jwt jwt(String token, Instant expiresAt) {
+		return Jwt.withTokenValue(token)
+				.header("alg", "RS256")
+				.subject("maria@gmail.com")
+				.issuedAt(Instant.now())
+				.expiresAt(expiresAt)
+				.build();
+	}
+}
@@ -0,0 +1,121 @@
+package com.devsuperior.dscommerce.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+public class JwkSetLoaderTests {
+
+	@TempDir
+	private Path dir;
+
+	private RSAKey retiredKey, currentKey;
+	private ECKey ecKey;
+	private Path jwks;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		retiredKey = new RSAKeyGenerator(2048).keyID("2023-01").generate();
+		currentKey = new RSAKeyGenerator(2048).keyID("2023-07").generate();
+		ecKey = new ECKeyGenerator(Curve.P_256).keyID("2023-07-ec").generate();
+		jwks = dir.resolve("jwks.json");
+		JWKSet jwkSet = new JWKSet(List.of(retiredKey.toPublicJWK(), currentKey, ecKey));
+		Files.writeString(jwks, jwkSet.toString(false));
+	}
+
+	@Test
+	public void signingKeyShouldReturnFirstPrivateKeyWhenNoKeyIdIsGiven() {
+
+		JWKSet jwkSet = JwkSetLoader.load(new FileSystemResource(jwks));
+
+		Assertions.assertEquals(jwkSet.getKeys().size(), 3);
+		Assertions.assertEquals(JwkSetLoader.signingKey(jwkSet, "", SignatureAlgorithm.RS256).getKeyID(), "2023-07");
+		Assertions.assertEquals(JwkSetLoader.signingKey(jwkSet, "", SignatureAlgorithm.ES256).getKeyID(), "2023-07-ec");
+	}
+
+	@Test
+	public void signingKeyShouldThrowIllegalStateExceptionWhenKeyDoesNotMatchAlgorithm() {
+
+		JWKSet jwkSet = JwkSetLoader.load(new FileSystemResource(jwks));
+
+		Assertions.assertThrows(IllegalStateException.class, () -> JwkSetLoader.signingKey(jwkSet, "2023-07", SignatureAlgorithm.ES256));
+		Assertions.assertThrows(IllegalStateException.class, () -> JwkSetLoader.signingKey(jwkSet, "2023-07-ec", SignatureAlgorithm.RS256));
+	}
+
+	@Test
+	public void algorithmShouldThrowIllegalStateExceptionWhenAlgorithmIsNotSupported() {
+
+		Assertions.assertEquals(JwkSetLoader.algorithm("ES256"), SignatureAlgorithm.ES256);
+		Assertions.assertThrows(IllegalStateException.class, () -> JwkSetLoader.algorithm("EdDSA"));
+		Assertions.assertThrows(IllegalStateException.class, () -> JwkSetLoader.algorithm("HS256"));
+	}
+
+	@Test
+	public void signingKeyShouldThrowIllegalStateExceptionWhenKeyHasNoPrivatePartOrDoesNotExist() {
+
+		JWKSet jwkSet = JwkSetLoader.load(new FileSystemResource(jwks));
+
+		Assertions.assertThrows(IllegalStateException.class, () -> JwkSetLoader.signingKey(jwkSet, "2023-01", SignatureAlgorithm.RS256));
+		Assertions.assertThrows(IllegalStateException.class, () -> JwkSetLoader.signingKey(jwkSet, "xpto", SignatureAlgorithm.RS256));
+	}
+
+	@Test
+	public void loadShouldThrowIllegalStateExceptionWhenFileIsMissing() {
+
+		Assertions.assertThrows(IllegalStateException.class, () -> JwkSetLoader.load(new FileSystemResource(dir.resolve("none.json"))));
+	}
+
+	@Test
+	public void tokensSignedByAnyKeyInTheSetShouldBeVerifiedByAnotherNode() throws Exception {
+
+		String current = sign(new JWKSet(currentKey), SignatureAlgorithm.RS256);
+		String retired = sign(new JWKSet(retiredKey), SignatureAlgorithm.RS256);
+		String ec = sign(new JWKSet(ecKey), SignatureAlgorithm.ES256);
+
+		NimbusJwtDecoder otherNode = decoder(JwkSetLoader.load(new FileSystemResource(jwks)));
+
+		Assertions.assertEquals(otherNode.decode(current).getSubject(), "maria@gmail.com");
+		Assertions.assertEquals(otherNode.decode(retired).getSubject(), "maria@gmail.com");
+		Assertions.assertEquals(otherNode.decode(ec).getSubject(), "maria@gmail.com");
+	}
+
+	private static String sign(JWKSet signingKey, SignatureAlgorithm algorithm) {
+		NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(signingKey));
+		JwtClaimsSet claims = JwtClaimsSet.builder()
+				.subject("maria@gmail.com")
+				.issuedAt(Instant.now())
+				.expiresAt(Instant.now().plusSeconds(60))
+				.build();
+		return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claims)).getTokenValue();
+	}
+
+	private static NimbusJwtDecoder decoder(JWKSet jwkSet) {
+		DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+		processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JwkSetLoader.verificationAlgorithms(jwkSet), new ImmutableJWKSet<>(jwkSet)));
+		return new NimbusJwtDecoder(processor);
+	}
+}
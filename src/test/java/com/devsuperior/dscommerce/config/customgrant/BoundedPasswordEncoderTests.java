@@ -0,0 +1,81 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+
+public class BoundedPasswordEncoderTests {
+
+	private PasswordEncoder delegate;
+	private CountDownLatch release;
+	private BoundedPasswordEncoder encoder;
+	private ExecutorService callers;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		delegate = Mockito.mock(PasswordEncoder.class);
+		release = new CountDownLatch(1);
+		Mockito.when(delegate.matches(ArgumentMatchers.eq("slow"), ArgumentMatchers.anyString())).thenAnswer(invocation -> {
+			release.await();
+			return true;
+		});
+		Mockito.when(delegate.matches("123456", "hash")).thenReturn(true);
+		encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5));
+		callers = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		release.countDown();
+		callers.shutdownNow();
+		encoder.shutdown();
+	}
+
+	@Test
+	public void matchesShouldReturnDelegateResult() {
+
+		Assertions.assertTrue(encoder.matches("123456", "hash"));
+		Assertions.assertFalse(encoder.matches("654321", "hash"));
+	}
+
+	@Test
+	public void matchesShouldThrowTemporarilyUnavailableWhenQueueIsFull() throws Exception {
+
+		callers.submit(() -> encoder.matches("slow", "hash"));
+		callers.submit(() -> encoder.matches("slow", "hash"));
+		waitUntilQueued(1);
+
+		OAuth2AuthenticationException e = Assertions.assertThrows(OAuth2AuthenticationException.class,
+				() -> encoder.matches("123456", "hash"));
+		Assertions.assertEquals(e.getError().getErrorCode(), OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE);
+	}
+
+	@Test
+	public void matchesShouldThrowTemporarilyUnavailableWhenCheckTakesLongerThanTimeout() {
+
+		encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofMillis(50));
+
+		OAuth2AuthenticationException e = Assertions.assertThrows(OAuth2AuthenticationException.class,
+				() -> encoder.matches("slow", "hash"));
+		Assertions.assertEquals(e.getError().getErrorCode(), OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE);
+	}
+
+	private void waitUntilQueued(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (encoder.queued() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+}
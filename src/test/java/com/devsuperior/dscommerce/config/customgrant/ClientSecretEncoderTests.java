@@ -0,0 +1,25 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ClientSecretEncoderTests {
+
+	private final ClientSecretEncoder encoder = new ClientSecretEncoder();
+
+	@Test
+	public void matchesShouldReturnTrueOnlyForTheEncodedSecret() {
+
+		String encoded = encoder.encode("myclientsecret");
+
+		Assertions.assertTrue(encoder.matches("myclientsecret", encoded));
+		Assertions.assertFalse(encoder.matches("myclientsecreT", encoded));
+	}
+
+	@Test
+	public void matchesShouldReturnFalseWhenEncodedSecretIsMalformed() {
+
+		Assertions.assertFalse(encoder.matches("myclientsecret", "{bcrypt}$2a$10$xyz"));
+		Assertions.assertFalse(encoder.matches("myclientsecret", null));
+	}
+}
@@ -0,0 +1,115 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+public class ExpiringOAuth2AuthorizationServiceTests {
+
+	private RegisteredClient client;
+	private ExpiringOAuth2AuthorizationService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		client = RegisteredClient.withId("1")
+				.clientId("myclientid")
+				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.build();
+		service = new ExpiringOAuth2AuthorizationService(3, Duration.ofHours(1));
+	}
+
+	@Test
+	public void findByTokenShouldReturnAuthorizationWhenTokenAndTypeMatch() {
+
+		OAuth2Authorization authorization = authorization("access", Duration.ofMinutes(5));
+		service.save(authorization);
+
+		Assertions.assertEquals(service.findById(authorization.getId()), authorization);
+		Assertions.assertEquals(service.findByToken("access", OAuth2TokenType.ACCESS_TOKEN), authorization);
+		Assertions.assertEquals(service.findByToken("access", null), authorization);
+		Assertions.assertNull(service.findByToken("access", OAuth2TokenType.REFRESH_TOKEN));
+		Assertions.assertNull(service.findByToken("other", null));
+	}
+
+	@Test
+	public void removeShouldDropAuthorizationAndItsTokens() {
+
+		OAuth2Authorization authorization = authorization("access", Duration.ofMinutes(5));
+		service.save(authorization);
+
+		service.remove(authorization);
+
+		Assertions.assertNull(service.findById(authorization.getId()));
+		Assertions.assertNull(service.findByToken("access", null));
+		Assertions.assertEquals(service.indexedTokens(), 0);
+	}
+
+	@Test
+	public void saveShouldReindexTokensWhenAuthorizationIsUpdated() {
+
+		OAuth2Authorization authorization = authorization("access", Duration.ofMinutes(5));
+		service.save(authorization);
+
+		OAuth2Authorization updated = OAuth2Authorization.from(authorization)
+				.accessToken(accessToken("renewed", Duration.ofMinutes(5)))
+				.build();
+		service.save(updated);
+
+		Assertions.assertNull(service.findByToken("access", null));
+		Assertions.assertEquals(service.findByToken("renewed", null), updated);
+		Assertions.assertEquals(service.indexedTokens(), 1);
+	}
+
+	@Test
+	public void authorizationShouldExpireWithItsLastToken() {
+
+		OAuth2Authorization expired = authorization("expired", Duration.ofSeconds(-1));
+		OAuth2Authorization refreshable = OAuth2Authorization.from(authorization("short", Duration.ofSeconds(-1)))
+				.refreshToken(new OAuth2RefreshToken("refresh", Instant.now(), Instant.now().plus(Duration.ofDays(1))))
+				.build();
+		service.save(expired);
+		service.save(refreshable);
+
+		Assertions.assertNull(service.findByToken("expired", null));
+		Assertions.assertEquals(service.findByToken("refresh", OAuth2TokenType.REFRESH_TOKEN), refreshable);
+		Assertions.assertEquals(service.size(), 1L);
+		Assertions.assertEquals(service.indexedTokens(), 2);
+	}
+
+	@Test
+	public void saveShouldEvictAndUnindexWhenCapacityIsReached() {
+
+		for (int i = 0; i < 100; i++) {
+			service.save(authorization("token-" + i, Duration.ofMinutes(5)));
+		}
+
+		Assertions.assertEquals(service.size(), 3L);
+		Assertions.assertEquals(service.indexedTokens(), 3);
+	}
+
+	private OAuth2Authorization authorization(String tokenValue, Duration timeToLive) {
+		return OAuth2Authorization.withRegisteredClient(client)
+				.id(UUID.randomUUID().toString())
+				.principalName("maria@gmail.com")
+				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.accessToken(accessToken(tokenValue, timeToLive))
+				.build();
+	}
+
+	private static OAuth2AccessToken accessToken(String tokenValue, Duration timeToLive) {
+		Instant now = Instant.now();
+		Instant expiresAt = now.plus(timeToLive);
+		Instant issuedAt = expiresAt.isBefore(now) ? expiresAt.minusSeconds(60) : now;
+		return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue, issuedAt, expiresAt);
+	}
+}
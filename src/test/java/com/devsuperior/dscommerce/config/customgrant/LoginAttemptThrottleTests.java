@@ -0,0 +1,58 @@
+package com.devsuperior.dscommerce.config.customgrant;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+
+public class LoginAttemptThrottleTests {
+
+	private static final String ADDRESS = "10.0.0.1";
+
+	private LoginAttemptThrottle throttle;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		throttle = new LoginAttemptThrottle(3, Duration.ofMinutes(5));
+	}
+
+	@Test
+	public void checkAllowedShouldThrowTooManyAttemptsWhenFailuresReachLimit() {
+
+		throttle.recordFailure("maria@gmail.com", ADDRESS);
+		throttle.recordFailure("maria@gmail.com", ADDRESS);
+		Assertions.assertDoesNotThrow(() -> throttle.checkAllowed("maria@gmail.com", ADDRESS));
+
+		throttle.recordFailure("MARIA@gmail.com", ADDRESS);
+
+		OAuth2AuthenticationException e = Assertions.assertThrows(OAuth2AuthenticationException.class,
+				() -> throttle.checkAllowed("maria@gmail.com", ADDRESS));
+		Assertions.assertEquals(e.getError().getErrorCode(), LoginAttemptThrottle.TOO_MANY_ATTEMPTS);
+		Assertions.assertDoesNotThrow(() -> throttle.checkAllowed("alex@gmail.com", ADDRESS));
+	}
+
+	@Test
+	public void recordSuccessShouldClearFailures() {
+
+		throttle.recordFailure("maria@gmail.com", ADDRESS);
+		throttle.recordFailure("maria@gmail.com", ADDRESS);
+		throttle.recordSuccess("maria@gmail.com", ADDRESS);
+		throttle.recordFailure("maria@gmail.com", ADDRESS);
+		throttle.recordFailure("maria@gmail.com", ADDRESS);
+
+		Assertions.assertDoesNotThrow(() -> throttle.checkAllowed("maria@gmail.com", ADDRESS));
+	}
+
+	@Test
+	public void checkAllowedShouldNotThrottleSameUsernameFromAnotherAddress() {
+
+		for (int i = 0; i < 3; i++) {
+			throttle.recordFailure("maria@gmail.com", ADDRESS);
+		}
+
+		Assertions.assertThrows(OAuth2AuthenticationException.class, () -> throttle.checkAllowed("maria@gmail.com", ADDRESS));
+		Assertions.assertDoesNotThrow(() -> throttle.checkAllowed("maria@gmail.com", "10.0.0.2"));
+	}
+}
@@ -1,6 +1,8 @@
 package com.devsuperior.dscommerce.controllers.it;
 
 import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -24,6 +27,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -116,6 +123,54 @@ public class OrderControllerIT {
         result.andExpect(jsonPath("$.total").exists());
     }
 
+    @Test
+    void findByIdShouldReturnNotModifiedWhenIdExistsAndClientLoggedAndEtagMatches() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/orders/{id}", existingOrderId)
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\"")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotModified());
+        result.andExpect(header().string(HttpHeaders.ETAG, "\"0-0\""));
+        result.andExpect(content().string(""));
+    }
+
+    @Test
+    void findByIdShouldReturnOrderDTOWhenEtagMatchesButItemProductWasUpdated() throws Exception {
+        Product product = ProductFactory.createProduct();
+        product.getCategories().clear();
+        product.getCategories().add(new Category(2L, "Eletrônicos"));
+        String jsonBody = objectMapper.writeValueAsString(new ProductDTO(product));
+        mockMvc.perform(put("/products/{id}", 3L)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        ResultActions result = mockMvc
+                .perform(get("/orders/{id}", existingOrderId)
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\"")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(header().string(HttpHeaders.ETAG, "\"0-1\""));
+        result.andExpect(jsonPath("$.items[?(@.productId == 3)].name").value("Console PlayStation 5"));
+    }
+
+    @Test
+    void findByIdShouldReturnForbiddenWhenClientLoggedAndEtagMatchesAndOrderDoesNotBelongUser() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/orders/{id}", 2L)
+                        .header("Authorization", "Bearer " + clientToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\"")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isForbidden());
+    }
+
     @Test
     void findByIdShouldReturnForbiddenWhenIdExistsAndClientLoggedAndOrderDoesNotBelongUser() throws Exception {
         Long otherOrderId = 2L;
@@ -166,8 +221,41 @@ public class OrderControllerIT {
         result.andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void insertShouldReturnCreatedOrderWithCatalogPricesWhenClientLogged() throws Exception {
+        Product other = ProductFactory.createProduct();
+        other.setId(3L);
+        order.getItems().add(new OrderItem(order, other, 1, 1.0));
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(order));
+
+        ResultActions result = mockMvc
+                .perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
 
+        result.andExpect(status().isCreated());
+        result.andExpect(jsonPath("$.client.name").value("Maria Brown"));
+        result.andExpect(jsonPath("$.items.length()").value(2));
+        result.andExpect(jsonPath("$.total").value(2 * 90.5 + 1250.0));
+    }
 
+    @Test
+    void insertShouldReturnNotFoundWhenProductDoesNotExist() throws Exception {
+        Product missing = ProductFactory.createProduct();
+        missing.setId(1000L);
+        order.getItems().add(new OrderItem(order, missing, 1, 1.0));
+        String jsonBody = objectMapper.writeValueAsString(new OrderDTO(order));
 
+        ResultActions result = mockMvc
+                .perform(post("/orders")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
 
+        result.andExpect(status().isNotFound());
+        result.andExpect(jsonPath("$.error").value("Produto não encontrado: [1000]"));
+    }
 }
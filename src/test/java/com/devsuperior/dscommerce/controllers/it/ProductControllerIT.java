@@ -1,18 +1,24 @@
 package com.devsuperior.dscommerce.controllers.it;
 
+import com.devsuperior.dscommerce.config.CacheConfig;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.util.it.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.transaction.annotation.Propagation;
@@ -21,6 +27,9 @@ import org.springframework.transaction.annotation.Transactional;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +47,9 @@ public class ProductControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private String productName;
     private String adminToken, clientToken, invalidToken;
     private String adminUsername, adminPassword;
@@ -101,6 +113,85 @@ public class ProductControllerIT {
 
     }
 
+    @Test
+    void findAllShouldReturnSliceWithoutTotalsWhenCountIsNone() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/products?count=none&size=2")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+        result.andExpect(jsonPath("$.last").value(false));
+        result.andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void findAllShouldReturnBadRequestWhenCountIsInvalid() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/products?count=xpto")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findAllByIdShouldReturnProductsInRequestOrderAndMissingIds() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/products/batch?ids=3,100,1")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(2));
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[0].categories").isNotEmpty());
+        result.andExpect(jsonPath("$.content[1].id").value(1L));
+        result.andExpect(jsonPath("$.content[1].name").value("The Lord of the Rings"));
+        result.andExpect(jsonPath("$.missingIds[0]").value(100L));
+    }
+
+    @Test
+    void findAllAfterShouldWalkProductsByIdWithCursor() throws Exception {
+        String first = mockMvc
+                .perform(get("/products?after=&size=2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[1].id").value(2L))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = objectMapper.readTree(first).get("nextCursor").asText();
+
+        ResultActions result = mockMvc
+                .perform(get("/products?after={cursor}&size=2", nextCursor)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].id").value(3L));
+        result.andExpect(jsonPath("$.content[1].id").value(4L));
+    }
+
+    @Test
+    void findAllAfterShouldReturnNullNextCursorOnLastPage() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/products?after=&sort=name&name={productName}", productName)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    void findAllAfterShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/products?after=xpto&size=2")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+        result.andExpect(jsonPath("$.error").value("Cursor inválido"));
+    }
+
     @Test
     void insertShouldReturnProductDTOCreatedWhenAdminLogged() throws Exception {
         String jsonBody = objectMapper.writeValueAsString(productDTO);
@@ -212,6 +303,24 @@ public class ProductControllerIT {
 
     }
 
+    @Test
+    void insertShouldReturnBadRequestWhenAdminLoggedAndCategoryDoesNotExist() throws Exception {
+        product.getCategories().add(new Category(100L, "Inexistente"));
+        productDTO = new ProductDTO(product);
+
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+
+        ResultActions result = mockMvc
+                .perform(post("/products")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+        result.andExpect(jsonPath("$.error").value("Categorias não encontradas: [100]"));
+    }
+
     @Test
     void insertShouldReturnForbiddenWhenClientLogged() throws Exception {
 
@@ -244,6 +353,166 @@ public class ProductControllerIT {
 
     }
 
+    @Test
+    void importShouldReportRowErrorsWhenAdminLogged() throws Exception {
+        String body = "{\"name\":\"PS\",\"description\":\"Console PlayStation\",\"price\":10.0,\"categories\":[{\"id\":2}]}\n"
+                + "{\"name\":\"PlayStation\",\"description\":\"Console PlayStation\",\"price\":10.0,\"categories\":[]}\n";
+
+        ResultActions result = mockMvc
+                .perform(post("/products/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(body)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.rows").value(2L));
+        result.andExpect(jsonPath("$.imported").value(0L));
+        result.andExpect(jsonPath("$.failed").value(2L));
+        result.andExpect(jsonPath("$.errors[0].line").value(1L));
+        result.andExpect(jsonPath("$.errors[0].fieldName").value("name"));
+        result.andExpect(jsonPath("$.errors[1].fieldName").value("categories"));
+    }
+
+    @Test
+    void importShouldReturnUnsupportedMediaTypeWhenBodyIsJson() throws Exception {
+        ResultActions result = mockMvc
+                .perform(post("/products/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void importShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc
+                .perform(post("/products/import")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .content("name,description,price\n")
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    void exportShouldStreamAllProductsAsNdjsonWhenAdminLogged() throws Exception {
+        MvcResult result = mockMvc
+                .perform(get("/products/export")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        Assertions.assertEquals(lines.length, 25);
+        Assertions.assertEquals(objectMapper.readValue(lines[0], ProductDTO.class).getName(), "The Lord of the Rings");
+    }
+
+    @Test
+    void exportShouldReturnForbiddenWhenClientLogged() throws Exception {
+        ResultActions result = mockMvc
+                .perform(get("/products/export")
+                        .header("Authorization", "Bearer " + clientToken)
+                        .accept("text/csv"));
+
+        result.andExpect(status().isForbidden());
+    }
+
+    @Test
+    void findByIdShouldCacheProductAndUpdateShouldEvictIt() throws Exception {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        cache.clear();
+
+        mockMvc.perform(get("/products/{id}", existingProductId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        Assertions.assertNotNull(cache.get(existingProductId));
+
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+        mockMvc.perform(put("/products/{id}", existingProductId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        Assertions.assertNull(cache.get(existingProductId));
+    }
+
+    @Test
+    void findByIdShouldReplaceCachedBodyOlderThanStoredVersion() throws Exception {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        cache.clear();
+        mockMvc.perform(get("/products/{id}", existingProductId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Object staleBody = cache.get(existingProductId).get();
+
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+        mockMvc.perform(put("/products/{id}", existingProductId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        // a node that missed the eviction still holds the old body
+        cache.put(existingProductId, staleBody);
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        result.andExpect(jsonPath("$.name").value("Console PlayStation 5"));
+        result.andExpect(jsonPath("$.version").value(1));
+        Assertions.assertEquals(1, ((ProductDTO) cache.get(existingProductId).get()).getVersion());
+    }
+
+    @Test
+    void findByIdShouldReturnNotModifiedUntilProductIsUpdated() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingProductId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+        mockMvc.perform(put("/products/{id}", existingProductId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        ResultActions result = mockMvc
+                .perform(get("/products/{id}", existingProductId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        result.andExpect(jsonPath("$.name").value("Console PlayStation 5"));
+    }
+
+    @Test
+    void cacheMetricsShouldBeVisibleToAdminOnly() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/cache.gets?tag=cache:products")
+                        .header("Authorization", "Bearer " + clientToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/metrics/cache.gets?tag=cache:products")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("cache.gets"));
+    }
+
     @Test
     void deleteShouldReturnNoContentWhenIdExistsAndAdminLogged() throws Exception {
 
@@ -0,0 +1,231 @@
+package com.devsuperior.dscommerce.controllers.it;
+
+import com.devsuperior.dscommerce.services.CachedUserDetailsService;
+import com.devsuperior.dscommerce.util.it.TokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fires parallel password grants for two users with different roles and checks
+ * that every token carries its own user's claims. Each login pays a bcrypt
+ * check, so the default run is short; raise it for a soak with
+ * {@code -Dtoken.stress.logins=5000}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TokenEndpointIT {
+
+    private static final int LOGINS = Integer.getInteger("token.stress.logins", 200);
+    private static final int THREADS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+
+    @Autowired
+    private OAuth2AuthorizationService authorizationService;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Value("${security.login.max-failures}")
+    private int maxFailures;
+
+    @Test
+    void passwordGrantShouldIssueEachUserItsOwnClaimsUnderConcurrentLogins() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> logins = new ArrayList<>();
+            for (int i = 0; i < LOGINS; i++) {
+                boolean admin = i % 2 == 0;
+                logins.add(executor.submit(() -> {
+                    String username = admin ? "alex@gmail.com" : "maria@gmail.com";
+                    Set<String> expected = admin ? Set.of("ROLE_CLIENT", "ROLE_ADMIN") : Set.of("ROLE_CLIENT");
+                    Long expectedId = admin ? 2L : 1L;
+
+                    JsonNode claims = claims(tokenUtil.obtainAccessToken(mockMvc, username, "123456"));
+
+                    Assertions.assertEquals(username, claims.get("username").asText());
+                    Assertions.assertEquals(expectedId, claims.get("user_id").asLong());
+                    Set<String> authorities = new HashSet<>();
+                    claims.get("authorities").forEach(x -> authorities.add(x.asText()));
+                    Assertions.assertEquals(expected, authorities);
+                    return null;
+                }));
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void passwordGrantShouldReturnTooManyRequestsWhenUsernameKeepsFailing() throws Exception {
+        for (int i = 0; i < maxFailures; i++) {
+            passwordGrant("ghost@gmail.com", "wrong")
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid credentials"));
+        }
+
+        passwordGrant("ghost@gmail.com", "wrong")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("too_many_attempts"));
+    }
+
+    @Test
+    void passwordGrantShouldNotLockOutUserFromAnotherAddressWhenOneAddressKeepsFailing() throws Exception {
+        for (int i = 0; i < maxFailures; i++) {
+            passwordGrant("maria@gmail.com", "wrong", "10.0.0.66")
+                    .andExpect(status().isBadRequest());
+        }
+
+        passwordGrant("maria@gmail.com", "123456", "10.0.0.66")
+                .andExpect(status().isTooManyRequests());
+        passwordGrant("maria@gmail.com", "123456", "10.0.0.7")
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void passwordGrantShouldUpgradeLegacyHashOnSuccessfulLogin() throws Exception {
+        jdbcTemplate.update("INSERT INTO tb_user (name, email, phone, password, birth_date) VALUES ('Ana Blue', 'ana@gmail.com', '966666666', "
+                + "'$2a$10$N7SkKCa3r17ga.i.dF9iy.BFUBL2n3b6Z1CWSZWi/qy7ABq/E6VpO', '1995-03-14')");
+        jdbcTemplate.update("INSERT INTO tb_user_role (user_id, role_id) SELECT id, 1 FROM tb_user WHERE email = 'ana@gmail.com'");
+
+        tokenUtil.obtainAccessToken(mockMvc, "ana@gmail.com", "123456");
+
+        String hash = jdbcTemplate.queryForObject("SELECT password FROM tb_user WHERE email = 'ana@gmail.com'", String.class);
+        Assertions.assertTrue(hash.startsWith("{bcrypt}$2a$10$"), hash);
+        tokenUtil.obtainAccessToken(mockMvc, "ana@gmail.com", "123456");
+    }
+
+    @Test
+    void refreshTokenGrantShouldIssueSameClaimsAndRotateRefreshToken() throws Exception {
+        JsonNode login = json(passwordGrant("alex@gmail.com", "123456")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refresh_token").exists()));
+        String refreshToken = login.get("refresh_token").asText();
+
+        JsonNode refreshed = json(refreshGrant(refreshToken)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.access_token").exists()));
+
+        JsonNode claims = claims(refreshed.get("access_token").asText());
+        Assertions.assertEquals("alex@gmail.com", claims.get("username").asText());
+        Assertions.assertEquals(2L, claims.get("user_id").asLong());
+        Assertions.assertEquals(2, claims.get("authorities").size());
+        Assertions.assertNotEquals(refreshToken, refreshed.get("refresh_token").asText());
+
+        refreshGrant(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+        refreshGrant(refreshed.get("refresh_token").asText())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshTokenGrantShouldReloadRolesAndRejectDeletedUser() throws Exception {
+        jdbcTemplate.update("INSERT INTO tb_user (name, email, phone, password, birth_date) VALUES ('Bob Gray', 'bob@gmail.com', '955555555', "
+                + "'$2a$10$N7SkKCa3r17ga.i.dF9iy.BFUBL2n3b6Z1CWSZWi/qy7ABq/E6VpO', '1990-07-21')");
+        jdbcTemplate.update("INSERT INTO tb_user_role (user_id, role_id) SELECT id, 1 FROM tb_user WHERE email = 'bob@gmail.com'");
+        jdbcTemplate.update("INSERT INTO tb_user_role (user_id, role_id) SELECT id, 2 FROM tb_user WHERE email = 'bob@gmail.com'");
+        String refreshToken = json(passwordGrant("bob@gmail.com", "123456")).get("refresh_token").asText();
+
+        jdbcTemplate.update("DELETE FROM tb_user_role WHERE role_id = 2 AND user_id = (SELECT id FROM tb_user WHERE email = 'bob@gmail.com')");
+        userDetailsService.evict("bob@gmail.com");
+        JsonNode refreshed = json(refreshGrant(refreshToken).andExpect(status().isOk()));
+        Assertions.assertEquals(1, claims(refreshed.get("access_token").asText()).get("authorities").size());
+
+        jdbcTemplate.update("DELETE FROM tb_user_role WHERE user_id = (SELECT id FROM tb_user WHERE email = 'bob@gmail.com')");
+        jdbcTemplate.update("DELETE FROM tb_user WHERE email = 'bob@gmail.com'");
+        userDetailsService.evict("bob@gmail.com");
+        refreshGrant(refreshed.get("refresh_token").asText())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    void refreshTokenGrantShouldFailWhenAuthorizationIsNotInThisNodesStore() throws Exception {
+        String refreshToken = json(passwordGrant("alex@gmail.com", "123456")).get("refresh_token").asText();
+
+        // what another node, a restart or a capacity eviction looks like to this node
+        authorizationService.remove(authorizationService.findByToken(refreshToken, OAuth2TokenType.REFRESH_TOKEN));
+
+        refreshGrant(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_grant"));
+    }
+
+    private ResultActions refreshGrant(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/oauth2/token")
+                .param("grant_type", "refresh_token")
+                .param("refresh_token", refreshToken)
+                .with(httpBasic(clientId, clientSecret)));
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+
+    private ResultActions passwordGrant(String username, String password) throws Exception {
+        return passwordGrant(username, password, "127.0.0.1");
+    }
+
+    private ResultActions passwordGrant(String username, String password, String remoteAddress) throws Exception {
+        return mockMvc.perform(post("/oauth2/token")
+                .param("grant_type", "password")
+                .param("username", username)
+                .param("password", password)
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                })
+                .with(httpBasic(clientId, clientSecret)));
+    }
+
+    private JsonNode claims(String accessToken) throws Exception {
+        String payload = accessToken.split("\\.")[1];
+        return objectMapper.readTree(Base64.getUrlDecoder().decode(payload));
+    }
+}
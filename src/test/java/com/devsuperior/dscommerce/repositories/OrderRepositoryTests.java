@@ -0,0 +1,76 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.time.Instant;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.User;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderRepositoryTests {
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	public void searchWithItemsByIdShouldLoadOrderDTOInOneStatementWhateverTheItemCount() {
+
+		long oneItem = statementsToLoadOrderDTO(createOrder(1));
+		long twentyItems = statementsToLoadOrderDTO(createOrder(20));
+
+		Assertions.assertEquals(oneItem, 1L);
+		Assertions.assertEquals(twentyItems, 1L);
+	}
+
+	@Test
+	public void searchWithItemsByIdShouldReturnEmptyWhenIdDoesNotExist() {
+
+		Assertions.assertTrue(repository.searchWithItemsById(1000L).isEmpty());
+	}
+
+	private long statementsToLoadOrderDTO(Long orderId) {
+		entityManager.clear();
+		statistics.clear();
+
+		Order order = repository.searchWithItemsById(orderId).orElseThrow();
+		OrderDTO dto = new OrderDTO(order);
+
+		Assertions.assertEquals(dto.getItems().size(), order.getItems().size());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private Long createOrder(int itemCount) {
+		User client = entityManager.find(User.class, 1L);
+		Order order = new Order(null, Instant.now(), OrderStatus.WAITING_PAYMENT, client, null);
+		entityManager.persist(order);
+		for (long productId = 1; productId <= itemCount; productId++) {
+			Product product = entityManager.find(Product.class, productId);
+			entityManager.persist(new OrderItem(order, product, 1, product.getPrice()));
+		}
+		entityManager.flush();
+		return order.getId();
+	}
+}
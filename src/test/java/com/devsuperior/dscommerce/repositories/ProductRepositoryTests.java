@@ -0,0 +1,125 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscommerce.entities.CompressedTextConverter;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductCatalogStateProjection;
+import com.devsuperior.dscommerce.projections.ProductDescriptionProjection;
+
+@DataJpaTest(properties = {"product.description.compress=true", "product.description.compress-min-length=100"})
+public class ProductRepositoryTests {
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void findByIdShouldNotLoadDescriptionUntilItIsRead() {
+
+		Product product = repository.findById(1L).orElseThrow();
+
+		Assertions.assertFalse(Hibernate.isPropertyInitialized(product, "description"));
+		Assertions.assertNotNull(product.getDescription());
+		Assertions.assertTrue(Hibernate.isPropertyInitialized(product, "description"));
+	}
+
+	@Test
+	public void saveShouldCompressLongDescriptionAndReadItBack() {
+
+		String description = "<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>".repeat(50);
+		Product product = repository.save(new Product(null, "PC Gamer Nova", description, 4000.0, null));
+		entityManager.flush();
+		entityManager.clear();
+
+		String stored = jdbcTemplate.queryForObject("SELECT description FROM tb_product WHERE id = ?", String.class, product.getId());
+		Assertions.assertTrue(stored.startsWith(CompressedTextConverter.PREFIX));
+		Assertions.assertTrue(stored.length() < description.length() / 5);
+		Assertions.assertEquals(repository.findById(product.getId()).orElseThrow().getDescription(), description);
+	}
+
+	@Test
+	public void saveShouldKeepPlainDescriptionThatStartsWithPrefix() {
+
+		String description = CompressedTextConverter.PREFIX + "hello world text";
+		Product product = repository.save(new Product(null, "PC Gamer Nova", description, 4000.0, null));
+		entityManager.flush();
+		entityManager.clear();
+
+		String stored = jdbcTemplate.queryForObject("SELECT description FROM tb_product WHERE id = ?", String.class, product.getId());
+		Assertions.assertEquals(stored, CompressedTextConverter.PLAIN_PREFIX + description);
+		Assertions.assertEquals(repository.findById(product.getId()).orElseThrow().getDescription(), description);
+	}
+
+	@Test
+	public void findByIdShouldReturnStoredDescriptionWhenPrefixedValueDoesNotDecode() {
+
+		String description = CompressedTextConverter.PREFIX + "hello world text";
+		jdbcTemplate.update("UPDATE tb_product SET description = ? WHERE id = 1", description);
+
+		Assertions.assertEquals(repository.findById(1L).orElseThrow().getDescription(), description);
+	}
+
+	@Test
+	public void findByIdShouldReadPlainDescriptionStoredBeforeCompression() {
+
+		String stored = jdbcTemplate.queryForObject("SELECT description FROM tb_product WHERE id = 1", String.class);
+
+		Assertions.assertFalse(stored.startsWith(CompressedTextConverter.PREFIX));
+		Assertions.assertEquals(repository.findById(1L).orElseThrow().getDescription(), stored);
+	}
+
+	@Test
+	public void findAllByIdShouldInitializeCategoriesOfAllProductsInOneBatch() {
+
+		List<Product> products = repository.findAllById(List.of(1L, 2L, 3L));
+
+		Assertions.assertFalse(products.get(0).getCategories().isEmpty());
+		for (Product product : products) {
+			Assertions.assertTrue(Hibernate.isInitialized(product.getCategories()));
+		}
+	}
+
+	@Test
+	public void searchWithCategoriesByIdsShouldLoadCategoriesWithoutDescription() {
+
+		List<Product> products = repository.searchWithCategoriesByIds(List.of(1L, 2L, 100L));
+
+		Assertions.assertEquals(products.size(), 2);
+		for (Product product : products) {
+			Assertions.assertTrue(Hibernate.isInitialized(product.getCategories()));
+			Assertions.assertFalse(Hibernate.isPropertyInitialized(product, "description"));
+		}
+		List<ProductDescriptionProjection> descriptions = repository.searchDescriptionsByIds(List.of(1L, 2L));
+		Assertions.assertEquals(descriptions.size(), 2);
+		Assertions.assertTrue(descriptions.get(0).getDescription().startsWith("Lorem ipsum"));
+	}
+
+	@Test
+	public void searchCatalogStateShouldChangeWhenProductIsUpdated() {
+
+		ProductCatalogStateProjection before = repository.searchCatalogState();
+		Product product = repository.findById(1L).orElseThrow();
+		product.setName("The Lord of the Rings II");
+		entityManager.flush();
+		ProductCatalogStateProjection after = repository.searchCatalogState();
+
+		Assertions.assertEquals(before.getCount(), 25L);
+		Assertions.assertEquals(before.getMaxId(), 25L);
+		Assertions.assertEquals(after.getCount(), 25L);
+		Assertions.assertEquals(after.getVersionSum(), before.getVersionSum() + 1);
+	}
+}
@@ -12,6 +12,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import com.devsuperior.dscommerce.entities.User;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
 import com.devsuperior.dscommerce.tests.UserFactory;
+import com.devsuperior.dscommerce.util.AuthenticatedUser;
 
 @ExtendWith(SpringExtension.class)
 public class AuthServiceTests {
@@ -34,7 +35,7 @@ public class AuthServiceTests {
 	@Test
 	public void validateSelfOrAdminShouldDoNothingWhenAdminLogged() {
 		
-		Mockito.when(userService.authenticated()).thenReturn(admin);
+		Mockito.when(userService.authenticatedPrincipal()).thenReturn(principal(admin));
 		
 		Long userId = admin.getId();
 		
@@ -46,7 +47,7 @@ public class AuthServiceTests {
 	@Test
 	public void validateSelfOrAdminShouldDoNothingWhenSelfLogged() {
 		
-		Mockito.when(userService.authenticated()).thenReturn(selfClient);
+		Mockito.when(userService.authenticatedPrincipal()).thenReturn(principal(selfClient));
 		
 		Long userId = selfClient.getId();
 		
@@ -58,7 +59,7 @@ public class AuthServiceTests {
 	@Test
 	public void validateSelfOrAdminThrowsForbiddenExceptionWhenClientOtherLogged() {
 		
-		Mockito.when(userService.authenticated()).thenReturn(selfClient);
+		Mockito.when(userService.authenticatedPrincipal()).thenReturn(principal(selfClient));
 		
 		Long userId = otherClient.getId();
 		
@@ -66,5 +67,9 @@ public class AuthServiceTests {
 			service.validateSelfOrAdmin(userId);
 		});
 	}
-
+	
+	private static AuthenticatedUser principal(User user) {
+		return new AuthenticatedUser(user.getId(), user.getUsername(),
+				user.getAuthorities().stream().map(x -> x.getAuthority()).toList());
+	}
 }
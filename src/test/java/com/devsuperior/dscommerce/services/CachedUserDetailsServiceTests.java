@@ -0,0 +1,79 @@
+package com.devsuperior.dscommerce.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscommerce.config.CacheConfig;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.tests.UserFactory;
+
+public class CachedUserDetailsServiceTests {
+
+	private CachedUserDetailsService service;
+	private UserService userService;
+
+	private String existingUsername, nonExistingUsername;
+	private User user;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingUsername = "maria@gmail.com";
+		nonExistingUsername = "user@gmail.com";
+		user = UserFactory.createCustomClientUser(1L, existingUsername);
+
+		userService = Mockito.mock(UserService.class);
+		Mockito.when(userService.loadUserByUsername(existingUsername)).thenReturn(user);
+		Mockito.when(userService.loadUserByUsername(nonExistingUsername)).thenThrow(new UsernameNotFoundException("Email not found"));
+
+		service = new CachedUserDetailsService(new ConcurrentMapCacheManager(CacheConfig.USER_DETAILS));
+		ReflectionTestUtils.setField(service, "userService", userService);
+	}
+
+	@Test
+	public void loadUserByUsernameShouldQueryOnceWhenCalledRepeatedly() {
+
+		UserDetails first = service.loadUserByUsername(existingUsername);
+		UserDetails second = service.loadUserByUsername(existingUsername);
+
+		Assertions.assertSame(first, user);
+		Assertions.assertSame(second, user);
+		Mockito.verify(userService, Mockito.times(1)).loadUserByUsername(existingUsername);
+	}
+
+	@Test
+	public void loadUserByUsernameShouldQueryAgainAfterEvict() {
+
+		service.loadUserByUsername(existingUsername);
+		service.evict(existingUsername);
+		service.loadUserByUsername(existingUsername);
+
+		Mockito.verify(userService, Mockito.times(2)).loadUserByUsername(existingUsername);
+	}
+
+	@Test
+	public void loadUserByUsernameShouldThrowUsernameNotFoundExceptionAndNotCacheWhenUserDoesNotExist() {
+
+		Assertions.assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername(nonExistingUsername));
+		Assertions.assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername(nonExistingUsername));
+
+		Mockito.verify(userService, Mockito.times(2)).loadUserByUsername(nonExistingUsername);
+	}
+
+	@Test
+	public void updatePasswordShouldPersistNewHashAndEvictCachedUser() {
+
+		service.loadUserByUsername(existingUsername);
+
+		service.updatePassword(user, "{bcrypt}newhash");
+		service.loadUserByUsername(existingUsername);
+
+		Mockito.verify(userService).updatePassword(existingUsername, "{bcrypt}newhash");
+		Mockito.verify(userService, Mockito.times(2)).loadUserByUsername(existingUsername);
+	}
+}
@@ -0,0 +1,75 @@
+package com.devsuperior.dscommerce.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.services.CategorySnapshotCache.Snapshot;
+import com.devsuperior.dscommerce.tests.CategoryFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(SpringExtension.class)
+public class CategorySnapshotCacheTests {
+
+	@InjectMocks
+	private CategorySnapshotCache cache;
+
+	@Mock
+	private CategoryService service;
+
+	private CategoryDTO category;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		category = new CategoryDTO(CategoryFactory.createCategory());
+
+		ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(cache, "ttl", 60000L);
+
+		Mockito.when(service.findAll()).thenReturn(List.of(category));
+	}
+
+	@Test
+	public void getShouldServeSerializedCategoriesFromMemoryWithinTtl() {
+
+		Snapshot first = cache.get();
+		Snapshot second = cache.get();
+
+		Assertions.assertSame(second, first);
+		Assertions.assertEquals(new String(first.json(), StandardCharsets.UTF_8), "[{\"id\":1,\"name\":\"Games\"}]");
+		Mockito.verify(service, Mockito.times(1)).findAll();
+	}
+
+	@Test
+	public void getShouldKeepSnapshotAndEtagWhenCategoriesDidNotChange() {
+
+		Snapshot first = cache.get();
+		cache.invalidate();
+		Snapshot second = cache.get();
+
+		Assertions.assertSame(second, first);
+		Mockito.verify(service, Mockito.times(2)).findAll();
+	}
+
+	@Test
+	public void getShouldReplaceSnapshotWhenCategoriesChanged() {
+
+		Snapshot first = cache.get();
+		Mockito.when(service.findAll()).thenReturn(List.of(category, new CategoryDTO(CategoryFactory.createCategory(2L, "Livros"))));
+		cache.invalidate();
+		Snapshot second = cache.get();
+
+		Assertions.assertNotEquals(second.etag(), first.etag());
+		Assertions.assertTrue(new String(second.json(), StandardCharsets.UTF_8).contains("Livros"));
+	}
+}
@@ -2,7 +2,7 @@ package com.devsuperior.dscommerce.services;
 
 import static org.mockito.ArgumentMatchers.any;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
@@ -20,7 +20,7 @@ import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
-import com.devsuperior.dscommerce.repositories.OrderItemRepository;
+import com.devsuperior.dscommerce.projections.OrderVersionProjection;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
@@ -29,8 +29,6 @@ import com.devsuperior.dscommerce.tests.OrderFactory;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.tests.UserFactory;
 
-import jakarta.persistence.EntityNotFoundException;
-
 @ExtendWith(SpringExtension.class)
 public class OrderServiceTests {
 	
@@ -46,9 +44,6 @@ public class OrderServiceTests {
 	@Mock
 	private ProductRepository productRepository;
 	
-	@Mock
-	private OrderItemRepository orderItemRepository;
-	
 	@Mock
 	private UserService userService;
 	
@@ -77,15 +72,15 @@ public class OrderServiceTests {
 		product = ProductFactory.createProduct();
 		product.setId(existingProductId);
 		
-		Mockito.when(repository.findById(existingOrderId)).thenReturn(Optional.of(order));
-		Mockito.when(repository.findById(nonExistingOrderId)).thenReturn(Optional.empty());
+		Mockito.when(repository.searchWithItemsById(existingOrderId)).thenReturn(Optional.of(order));
+		Mockito.when(repository.searchWithItemsById(nonExistingOrderId)).thenReturn(Optional.empty());
 		
-		Mockito.when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
-		Mockito.when(productRepository.getReferenceById(nonExistingProductId)).thenThrow(EntityNotFoundException.class);
+		Mockito.when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<Long> ids = invocation.getArgument(0);
+			return ids.contains(existingProductId) ? List.of(product) : List.of();
+		});
 	
 		Mockito.when(repository.save(any())).thenReturn(order);
-		
-		Mockito.when(orderItemRepository.saveAll(any())).thenReturn(new ArrayList<>(order.getItems()));
 	}
 	
 	@Test
@@ -130,10 +125,33 @@ public class OrderServiceTests {
 		});
 	}
 	
+	@Test
+	public void findETagByIdShouldThrowsForbiddenExceptionWhenIdExistsAndOtherClientLogged() {
+		
+		OrderVersionProjection projection = Mockito.mock(OrderVersionProjection.class);
+		Mockito.when(projection.getClientId()).thenReturn(client.getId());
+		Mockito.when(repository.searchVersionById(existingOrderId)).thenReturn(Optional.of(projection));
+		Mockito.doThrow(ForbiddenException.class).when(authService).validateSelfOrAdmin(client.getId());
+		
+		Assertions.assertThrows(ForbiddenException.class, () -> {
+			service.findETagById(existingOrderId);
+		});
+	}
+	
+	@Test
+	public void findETagByIdShouldThrowsResourceNotFoundExceptionWhenIdDoesNotExist() {
+		
+		Mockito.when(repository.searchVersionById(nonExistingOrderId)).thenReturn(Optional.empty());
+		
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.findETagById(nonExistingOrderId);
+		});
+	}
+	
 	@Test
 	public void insertShouldReturnOrderDTOWhenAdminLogged() {
 		
-		Mockito.when(userService.authenticated()).thenReturn(admin);
+		Mockito.when(userService.authenticatedReference()).thenReturn(admin);
 		
 		OrderDTO result = service.insert(orderDTO);
 		
@@ -143,7 +161,7 @@ public class OrderServiceTests {
 	@Test
 	public void insertShouldReturnOrderDTOWhenClientLogged() {
 		
-		Mockito.when(userService.authenticated()).thenReturn(client);
+		Mockito.when(userService.authenticatedReference()).thenReturn(client);
 		
 		OrderDTO result = service.insert(orderDTO);
 		
@@ -153,7 +171,7 @@ public class OrderServiceTests {
 	@Test
 	public void insertShouldThrowsUsernameNotFoundExceptionWhenUserNotLogged() {
 		
-		Mockito.doThrow(UsernameNotFoundException.class).when(userService).authenticated();
+		Mockito.doThrow(UsernameNotFoundException.class).when(userService).authenticatedReference();
 		
 		order.setClient(new User());
 		orderDTO = new OrderDTO(order);
@@ -165,9 +183,9 @@ public class OrderServiceTests {
 	}
 	
 	@Test
-	public void insertShouldThrowsEntityNotFoundExceptionWhenOrderProductIdDoesNotExist() {
+	public void insertShouldThrowsResourceNotFoundExceptionWhenOrderProductIdDoesNotExist() {
 		
-		Mockito.when(userService.authenticated()).thenReturn(client);
+		Mockito.when(userService.authenticatedReference()).thenReturn(client);
 		
 		product.setId(nonExistingOrderId);
 		OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
@@ -175,7 +193,7 @@ public class OrderServiceTests {
 		
 		orderDTO = new OrderDTO(order);
 		
-		Assertions.assertThrows(EntityNotFoundException.class, () -> {
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
 			@SuppressWarnings("unused")
 			OrderDTO result = service.insert(orderDTO);
 		});
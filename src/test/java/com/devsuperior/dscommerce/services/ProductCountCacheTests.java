@@ -0,0 +1,52 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscommerce.config.CacheConfig;
+
+public class ProductCountCacheTests {
+
+	private AtomicLong queries;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		queries = new AtomicLong();
+	}
+
+	@Test
+	public void getShouldReuseCountForSameNameIgnoringCase() {
+
+		ProductCountCache cache = cache(60_000L);
+
+		Assertions.assertEquals(cache.get("mac", () -> 10L + queries.incrementAndGet()), 11L);
+		Assertions.assertEquals(cache.get("MAC", () -> 10L + queries.incrementAndGet()), 11L);
+		Assertions.assertEquals(queries.get(), 1L);
+	}
+
+	@Test
+	public void getShouldReloadCountAfterInvalidateOrExpiry() {
+
+		ProductCountCache cache = cache(60_000L);
+		cache.get("mac", queries::incrementAndGet);
+		cache.invalidate();
+		Assertions.assertEquals(cache.get("mac", queries::incrementAndGet), 2L);
+
+		cache = cache(0L);
+		cache.get("pc", queries::incrementAndGet);
+		Assertions.assertEquals(cache.get("pc", queries::incrementAndGet), 4L);
+	}
+
+	private static ProductCountCache cache(long ttl) {
+		CacheConfig config = new CacheConfig();
+		ReflectionTestUtils.setField(config, "productsMaxSize", 10L);
+		ReflectionTestUtils.setField(config, "productCountsMaxSize", 10L);
+		ReflectionTestUtils.setField(config, "productCountsTtl", ttl);
+		ReflectionTestUtils.setField(config, "userDetailsMaxSize", 10L);
+		return new ProductCountCache(config.cacheManager());
+	}
+}
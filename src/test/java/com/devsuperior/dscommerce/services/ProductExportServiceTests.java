@@ -0,0 +1,92 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.CompressedTextConverter;
+import com.devsuperior.dscommerce.util.CsvReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DataJpaTest(properties = "product.export.fetch-size=10")
+@Import(ProductExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class ProductExportServiceTests {
+
+	@Autowired
+	private ProductExportService service;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void exportProductsShouldWriteOneCsvRecordPerProductWithCategoryIds() throws IOException {
+
+		String description = "Line one\nwith \"quotes\" and a comma, too";
+		jdbcTemplate.update("INSERT INTO tb_product (name, price, description) VALUES (?, ?, ?)", "Export, Quoted", 10.0, description);
+
+		long count = service.exportProducts(new ByteArrayOutputStream(), ProductImportService.CSV);
+		List<List<String>> records = readCsv(export(ProductImportService.CSV));
+
+		Assertions.assertEquals(count, 26L);
+		Assertions.assertEquals(records.size(), 27);
+		Assertions.assertEquals(records.get(0), List.of("id", "name", "description", "price", "imgUrl", "categories"));
+		Assertions.assertEquals(records.get(2).get(1), "Smart TV");
+		Assertions.assertEquals(records.get(2).get(5), "2|3");
+		Assertions.assertEquals(records.get(26).get(1), "Export, Quoted");
+		Assertions.assertEquals(records.get(26).get(2), description);
+		Assertions.assertEquals(records.get(26).get(5), "");
+	}
+
+	@Test
+	public void exportProductsShouldWriteNdjsonWithDecodedDescriptionsAndCategories() throws IOException {
+
+		CompressedTextConverter converter = new CompressedTextConverter();
+		ReflectionTestUtils.setField(converter, "compress", true);
+		String description = "Compressed export description. ".repeat(20);
+		jdbcTemplate.update("UPDATE tb_product SET description = ? WHERE id = 1", converter.convertToDatabaseColumn(description));
+
+		String[] lines = export(MediaType.APPLICATION_NDJSON).split("\n");
+		ProductDTO first = objectMapper.readValue(lines[0], ProductDTO.class);
+		ProductDTO second = objectMapper.readValue(lines[1], ProductDTO.class);
+
+		Assertions.assertEquals(lines.length, 25);
+		Assertions.assertEquals(first.getDescription(), description);
+		Assertions.assertEquals(second.getCategories().size(), 2);
+		Assertions.assertEquals(second.getCategories().get(1).getName(), "Computadores");
+	}
+
+	private String export(MediaType contentType) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.exportProducts(out, contentType);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private List<List<String>> readCsv(String csv) throws IOException {
+		CsvReader reader = new CsvReader(new BufferedReader(new StringReader(csv)));
+		List<List<String>> records = new ArrayList<>();
+		for (List<String> record = reader.next(); record != null; record = reader.next()) {
+			records.add(record);
+		}
+		return records;
+	}
+}
@@ -0,0 +1,168 @@
+package com.devsuperior.dscommerce.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.dscommerce.dto.ProductImportDTO;
+import com.devsuperior.dscommerce.services.exceptions.InvalidRequestException;
+
+@DataJpaTest(properties = "product.import.chunk-size=2")
+@Import(ProductImportService.class)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+public class ProductImportServiceTests {
+
+	@Autowired
+	private ProductImportService service;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private ProductSearchIndex searchIndex;
+
+	@MockBean
+	private ProductCountCache countCache;
+
+	@Test
+	public void importProductsShouldInsertValidNdjsonRowsAndReportInvalidOnes() throws IOException {
+
+		String body = """
+				{"name":"Import A","description":"Imported product A","price":10.0,"categories":[{"id":1}]}
+				{"name":"Import B","description":"Imported product B","price":-1.0,"categories":[{"id":1}]}
+
+				{"name":"Import C","description":"Imported product C","price":30.0,"categories":[{"id":2},{"id":3}]}
+				{"name":"Import D","description":"Imported product D","price":40.0,"categories":[{"id":99}]}
+				not json
+				{"name":"Import E","description":"Imported product E","price":50.0,"categories":[{"id":3}]}
+				""";
+
+		ProductImportDTO result = service.importProducts(stream(body), MediaType.APPLICATION_NDJSON);
+
+		Assertions.assertEquals(result.getRows(), 6L);
+		Assertions.assertEquals(result.getImported(), 3L);
+		Assertions.assertEquals(result.getFailed(), 3L);
+		Assertions.assertEquals(result.getErrors().get(0).getLine(), 2L);
+		Assertions.assertEquals(result.getErrors().get(0).getFieldName(), "price");
+		Assertions.assertEquals(result.getErrors().get(1).getLine(), 5L);
+		Assertions.assertEquals(result.getErrors().get(1).getMessage(), "Categorias não encontradas: [99]");
+		Assertions.assertEquals(result.getErrors().get(2).getLine(), 6L);
+		Assertions.assertEquals(countLinks("Import C"), 2);
+		Mockito.verify(searchIndex).put(any(), eq("Import E"));
+	}
+
+	@Test
+	public void importProductsShouldReportNullRowAndNullCategoriesAsRowErrors() throws IOException {
+
+		String body = """
+				null
+				{"name":"Import F","description":"Imported product F","price":10.0,"categories":null}
+				{"name":"Import G","description":"Imported product G","price":10.0,"categories":[null]}
+				{"name":"Import H","description":"Imported product H","price":10.0,"categories":[{"id":1}]}
+				""";
+
+		ProductImportDTO result = service.importProducts(stream(body), MediaType.APPLICATION_NDJSON);
+
+		Assertions.assertEquals(result.getRows(), 4L);
+		Assertions.assertEquals(result.getImported(), 1L);
+		Assertions.assertEquals(result.getFailed(), 3L);
+		Assertions.assertEquals(result.getErrors().get(0).getLine(), 1L);
+		Assertions.assertEquals(result.getErrors().get(0).getMessage(), "Produto ausente");
+		Assertions.assertEquals(result.getErrors().get(1).getLine(), 2L);
+		Assertions.assertEquals(result.getErrors().get(1).getFieldName(), "categories");
+		Assertions.assertEquals(result.getErrors().get(2).getLine(), 3L);
+		Assertions.assertEquals(result.getErrors().get(2).getMessage(), "Categoria inválida: null");
+	}
+
+	@Test
+	public void importProductsShouldInsertCsvRowsWithQuotedFields() throws IOException {
+
+		String body = """
+				name,price,description,categories
+				"Import, Quoted",12.5,"Line one
+				with ""quotes"" and a comma, too",1|2
+				Import Plain,abc,Plain description here,1
+				""";
+
+		ProductImportDTO result = service.importProducts(stream(body), ProductImportService.CSV);
+
+		Assertions.assertEquals(result.getImported(), 1L);
+		Assertions.assertEquals(result.getFailed(), 1L);
+		Assertions.assertEquals(result.getErrors().get(0).getLine(), 4L);
+		Assertions.assertEquals(result.getErrors().get(0).getMessage(), "Preço inválido: abc");
+		String description = jdbcTemplate.queryForObject("SELECT description FROM tb_product WHERE name = 'Import, Quoted'", String.class);
+		Assertions.assertEquals(description, "Line one\nwith \"quotes\" and a comma, too");
+		Assertions.assertEquals(countLinks("Import, Quoted"), 2);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void importProductsShouldReportOnlyRowRejectedByDatabaseWhenChunkFails() throws IOException {
+
+		String longUrl = "https://example.com/" + "x".repeat(300) + ".jpg";
+		String body = """
+				{"name":"Import Ok 1","description":"Imported product Ok 1","price":10.0,"categories":[{"id":1}]}
+				{"name":"Import Too Long","description":"Imported product Too Long","price":10.0,"imgUrl":"%s","categories":[{"id":1}]}
+				{"name":"Import Ok 2","description":"Imported product Ok 2","price":10.0,"categories":[{"id":2}]}
+				""".formatted(longUrl);
+
+		try {
+			ProductImportDTO result = service.importProducts(stream(body), MediaType.APPLICATION_NDJSON);
+
+			Assertions.assertEquals(result.getImported(), 2L);
+			Assertions.assertEquals(result.getFailed(), 1L);
+			Assertions.assertEquals(result.getErrors().size(), 1);
+			Assertions.assertEquals(result.getErrors().get(0).getLine(), 2L);
+			Assertions.assertEquals(result.getErrors().get(0).getMessage(), "Falha ao gravar o produto");
+			Assertions.assertEquals(countProducts("Import Ok 1"), 1);
+			Assertions.assertEquals(countProducts("Import Too Long"), 0);
+			Assertions.assertEquals(countLinks("Import Ok 1"), 1);
+			Mockito.verify(searchIndex).put(any(), eq("Import Ok 1"));
+			Mockito.verify(searchIndex, Mockito.never()).put(any(), eq("Import Too Long"));
+		}
+		finally {
+			jdbcTemplate.update("DELETE FROM tb_product_category WHERE product_id IN (SELECT id FROM tb_product WHERE name LIKE 'Import Ok %')");
+			jdbcTemplate.update("DELETE FROM tb_product WHERE name LIKE 'Import Ok %'");
+		}
+	}
+
+	@Test
+	public void importProductsShouldThrowInvalidRequestExceptionWhenCsvHeaderLacksRequiredColumns() {
+
+		Assertions.assertThrows(InvalidRequestException.class, () -> {
+			service.importProducts(stream("name,price\nImport,10.0\n"), ProductImportService.CSV);
+		});
+	}
+
+	private InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private int countProducts(String name) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product WHERE name = ?", Integer.class, name);
+	}
+
+	private int countLinks(String name) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product_category pc "
+				+ "JOIN tb_product p ON p.id = pc.product_id WHERE p.name = ?", Integer.class, name);
+	}
+}
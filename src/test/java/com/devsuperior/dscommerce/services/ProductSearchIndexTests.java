@@ -0,0 +1,135 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.projections.ProductCatalogStateProjection;
+import com.devsuperior.dscommerce.projections.ProductNameProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexTests {
+
+	@InjectMocks
+	private ProductSearchIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Mockito.when(repository.searchAllNames()).thenReturn(List.of(
+				row(1L, "The Lord of the Rings"),
+				row(3L, "Macbook Pro"),
+				row(4L, "PC Gamer"),
+				row(6L, "PC Gamer Ex")));
+		Mockito.when(repository.searchCatalogState()).thenReturn(state(4L, 6L, 0L));
+	}
+
+	@Test
+	public void searchShouldReturnEmptyBeforeRebuild() {
+
+		Assertions.assertEquals(index.search("Gamer"), Optional.empty());
+	}
+
+	@Test
+	public void searchShouldReturnMatchingIdsIgnoringCase() {
+
+		index.rebuild();
+
+		Assertions.assertEquals(index.search("gamer"), Optional.of(List.of(4L, 6L)));
+		Assertions.assertEquals(index.search("OOK P"), Optional.of(List.of(3L)));
+	}
+
+	@Test
+	public void searchShouldConfirmSubstringWhenAllTrigramsMatch() {
+
+		index.rebuild();
+
+		Assertions.assertEquals(index.search("GAMER EX"), Optional.of(List.of(6L)));
+		Assertions.assertEquals(index.search("GAMEX"), Optional.of(List.of()));
+	}
+
+	@Test
+	public void searchShouldReturnEmptyWhenTermIsShorterThanTrigram() {
+
+		index.rebuild();
+
+		Assertions.assertEquals(index.search("PC"), Optional.empty());
+		Assertions.assertEquals(index.search(""), Optional.empty());
+	}
+
+	@Test
+	public void putAndRemoveShouldKeepIndexInSync() {
+
+		index.rebuild();
+
+		index.put(26L, "PC Gamer Nova");
+		index.put(3L, "Macbook Air");
+		index.remove(4L);
+
+		Assertions.assertEquals(index.search("Gamer"), Optional.of(List.of(6L, 26L)));
+		Assertions.assertEquals(index.search("Pro"), Optional.of(List.of()));
+		Assertions.assertEquals(index.search("Air"), Optional.of(List.of(3L)));
+		Assertions.assertEquals(index.size(), 4);
+	}
+
+	@Test
+	public void rebuildIfChangedShouldRebuildOnlyWhenCatalogStateChanged() {
+
+		index.rebuild();
+		Mockito.when(repository.searchAllNames()).thenReturn(List.of(row(1L, "The Lord of the Rings"), row(3L, "Macbook Air")));
+
+		index.rebuildIfChanged();
+		Assertions.assertEquals(index.search("Gamer"), Optional.of(List.of(4L, 6L)));
+
+		Mockito.when(repository.searchCatalogState()).thenReturn(state(2L, 3L, 1L));
+		index.rebuildIfChanged();
+		Assertions.assertEquals(index.search("Gamer"), Optional.of(List.of()));
+		Assertions.assertEquals(index.search("Air"), Optional.of(List.of(3L)));
+	}
+
+	private static ProductCatalogStateProjection state(Long count, Long maxId, Long versionSum) {
+		return new ProductCatalogStateProjection() {
+
+			@Override
+			public Long getCount() {
+				return count;
+			}
+
+			@Override
+			public Long getMaxId() {
+				return maxId;
+			}
+
+			@Override
+			public Long getVersionSum() {
+				return versionSum;
+			}
+		};
+	}
+
+	private static ProductNameProjection row(Long id, String name) {
+		return new ProductNameProjection() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getName() {
+				return name;
+			}
+		};
+	}
+}
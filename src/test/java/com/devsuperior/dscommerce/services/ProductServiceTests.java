@@ -1,6 +1,7 @@
 package com.devsuperior.dscommerce.services;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,14 +18,25 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.ProductBatchDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductDescriptionProjection;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
+import com.devsuperior.dscommerce.services.exceptions.InvalidRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.tests.CategoryFactory;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -38,11 +50,21 @@ public class ProductServiceTests {
 	@Mock
 	private ProductRepository repository;
 	
+	@Mock
+	private CategoryRepository categoryRepository;
+	
+	@Mock
+	private ProductSearchIndex searchIndex;
+	
+	@Mock
+	private ProductCountCache countCache;
+	
 	private long existingProductId, nonExistingProductId, dependentProductId;
 	private String productName;
 	private Product product;
 	private ProductDTO productDTO;
-	private PageImpl<Product> page;
+	private ProductMinDTO productMin;
+	private PageImpl<ProductMinDTO> page;
 	
 	@BeforeEach
 	void setUp() throws Exception {
@@ -54,15 +76,24 @@ public class ProductServiceTests {
 		
 		product = ProductFactory.createProduct(productName);
 		productDTO = new ProductDTO(product);
-		page = new PageImpl<>(List.of(product));
+		productMin = new ProductMinDTO(product);
+		page = new PageImpl<>(List.of(productMin));
+		
+		ReflectionTestUtils.setField(service, "maxIndexedMatches", 1000);
+		ReflectionTestUtils.setField(service, "maxCursorSize", 2000);
+		ReflectionTestUtils.setField(service, "maxBatchSize", 100);
 		
 		Mockito.when(repository.findById(existingProductId)).thenReturn(Optional.of(product));
 		Mockito.when(repository.findById(nonExistingProductId)).thenReturn(Optional.empty());
 		
 		Mockito.when(repository.searchByName(any(), (Pageable)any())).thenReturn(page);
+		Mockito.when(repository.searchSliceByName(any(), (Pageable)any())).thenReturn(new SliceImpl<>(List.of(productMin)));
 		
 		Mockito.when(repository.save(any())).thenReturn(product);
 		
+		Category category = CategoryFactory.createCategory();
+		Mockito.when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+		
 		Mockito.when(repository.getReferenceById(existingProductId)).thenReturn(product);
 		Mockito.when(repository.getReferenceById(nonExistingProductId)).thenThrow(EntityNotFoundException.class);
 		
@@ -92,6 +123,46 @@ public class ProductServiceTests {
 		});
 	}
 	
+	@Test
+	public void findAllByIdShouldKeepRequestOrderAndReportMissingIds() {
+		
+		Product other = ProductFactory.createProduct("Xbox Series X");
+		other.setId(5L);
+		Mockito.when(repository.searchWithCategoriesByIds(any())).thenReturn(List.of(product, other));
+		
+		ProductBatchDTO result = service.findAllById(List.of(5L, nonExistingProductId, existingProductId, 5L));
+		
+		Assertions.assertEquals(result.getContent().size(), 2);
+		Assertions.assertEquals(result.getContent().get(0).getId(), 5L);
+		Assertions.assertEquals(result.getContent().get(1).getId(), existingProductId);
+		Assertions.assertEquals(result.getMissingIds(), List.of(nonExistingProductId));
+	}
+	
+	@Test
+	public void findAllByIdShouldReturnProductWhenDescriptionIsNull() {
+		
+		ProductDescriptionProjection description = Mockito.mock(ProductDescriptionProjection.class);
+		Mockito.when(description.getId()).thenReturn(existingProductId);
+		Mockito.when(repository.searchWithCategoriesByIds(any())).thenReturn(List.of(product));
+		Mockito.when(repository.searchDescriptionsByIds(any())).thenReturn(List.of(description));
+		
+		ProductBatchDTO result = service.findAllById(List.of(existingProductId));
+		
+		Assertions.assertEquals(result.getContent().size(), 1);
+		Assertions.assertNull(result.getContent().get(0).getDescription());
+	}
+	
+	@Test
+	public void findAllByIdShouldThrowInvalidRequestExceptionWhenTooManyIds() {
+		
+		List<Long> ids = java.util.stream.LongStream.rangeClosed(1, 101).boxed().toList();
+		
+		Assertions.assertThrows(InvalidRequestException.class, () -> {
+			service.findAllById(ids);
+		});
+		Mockito.verify(repository, Mockito.never()).searchWithCategoriesByIds(any());
+	}
+	
 	@Test
 	public void findAllShouldReturnPagedProductMinDTO() {
 		
@@ -104,6 +175,110 @@ public class ProductServiceTests {
 		Assertions.assertEquals(result.iterator().next().getName(), productName);
 	}
 	
+	@Test
+	public void findAllShouldReturnPagedProductMinDTOFromSearchIndexWhenIndexHasMatches() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(searchIndex.search(productName)).thenReturn(Optional.of(List.of(existingProductId)));
+		Mockito.when(repository.searchByIds(eq(List.of(existingProductId)), any())).thenReturn(List.of(productMin));
+		
+		Page<ProductMinDTO> result = service.findAll(productName, pageable);
+		
+		Assertions.assertEquals(result.getTotalElements(), 1L);
+		Assertions.assertEquals(result.iterator().next().getName(), productName);
+		Mockito.verify(repository, Mockito.never()).searchByName(any(), any());
+	}
+	
+	@Test
+	public void findAllShouldQueryOnlyPageIdsWhenIndexMatchesExceedLimitAndPageIsSortedById() {
+		
+		ReflectionTestUtils.setField(service, "maxIndexedMatches", 2);
+		Pageable pageable = PageRequest.of(1, 2, Sort.by("id"));
+		Mockito.when(searchIndex.search(productName)).thenReturn(Optional.of(List.of(1L, 3L, 4L, 6L, 8L)));
+		Mockito.when(repository.searchByIds(List.of(4L, 6L), PageRequest.of(0, 2, Sort.by("id")))).thenReturn(List.of(productMin));
+		
+		Page<ProductMinDTO> result = service.findAll(productName, pageable);
+		
+		Assertions.assertEquals(result.getTotalElements(), 5L);
+		Assertions.assertEquals(result.iterator().next().getName(), productName);
+		Mockito.verify(repository, Mockito.never()).searchByName(any(), any());
+	}
+	
+	@Test
+	public void findAllShouldFallBackToDatabaseWhenIndexMatchesExceedLimitAndPageIsSortedByName() {
+		
+		ReflectionTestUtils.setField(service, "maxIndexedMatches", 2);
+		Pageable pageable = PageRequest.of(0, 2, Sort.by("name"));
+		Mockito.when(searchIndex.search(productName)).thenReturn(Optional.of(List.of(1L, 3L, 4L)));
+		
+		Page<ProductMinDTO> result = service.findAll(productName, pageable);
+		
+		Assertions.assertEquals(result.iterator().next().getName(), productName);
+		Mockito.verify(repository, Mockito.never()).searchByIds(any(), any());
+	}
+	
+	@Test
+	public void findAllShouldReturnSliceWithoutCountWhenCountModeIsNone() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		
+		Slice<ProductMinDTO> result = service.findAll(productName, pageable, CountMode.NONE);
+		
+		Assertions.assertFalse(result instanceof Page);
+		Assertions.assertEquals(result.iterator().next().getName(), productName);
+		Mockito.verify(repository, Mockito.never()).searchByName(any(), any());
+		Mockito.verify(repository, Mockito.never()).countByName(any());
+	}
+	
+	@Test
+	public void findAllShouldReturnPageWithCachedTotalWhenCountModeIsEstimate() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(countCache.get(eq(productName), any())).thenReturn(40L);
+		
+		Slice<ProductMinDTO> result = service.findAll(productName, pageable, CountMode.ESTIMATE);
+		
+		Assertions.assertEquals(((Page<ProductMinDTO>) result).getTotalElements(), 40L);
+		Mockito.verify(repository, Mockito.never()).searchByName(any(), any());
+	}
+	
+	@Test
+	public void findAllAfterShouldReturnNextCursorWhenThereAreMoreProducts() {
+		
+		ProductMinDTO next = new ProductMinDTO(2L, "PlayStation 5 Pro", 4000.0, null);
+		Mockito.when(repository.searchByNameAfterId(eq(productName), eq(0L), any())).thenReturn(List.of(productMin, next));
+		
+		CursorPageDTO<ProductMinDTO> result = service.findAllAfter(productName, "id", "", 1);
+		
+		Assertions.assertEquals(result.getSize(), 1);
+		Assertions.assertEquals(result.getContent().get(0).getName(), productName);
+		Assertions.assertEquals(ProductCursor.decode("id", result.getNextCursor()).getId(), product.getId());
+	}
+	
+	@Test
+	public void findAllAfterShouldThrowInvalidRequestExceptionWhenSizeIsOutOfRange() {
+		
+		Assertions.assertThrows(InvalidRequestException.class, () -> {
+			service.findAllAfter(productName, "id", "", 0);
+		});
+		Assertions.assertThrows(InvalidRequestException.class, () -> {
+			service.findAllAfter(productName, "id", "", 2001);
+		});
+	}
+	
+	@Test
+	public void findAllShouldReturnEmptyPageWithoutQueryWhenSearchIndexHasNoMatches() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(searchIndex.search(productName)).thenReturn(Optional.of(List.of()));
+		
+		Page<ProductMinDTO> result = service.findAll(productName, pageable);
+		
+		Assertions.assertTrue(result.isEmpty());
+		Mockito.verify(repository, Mockito.never()).searchByIds(any(), any());
+		Mockito.verify(repository, Mockito.never()).searchByName(any(), any());
+	}
+	
 	@Test
 	public void insertShouldReturnProductDTO() {
 		
@@ -113,6 +288,17 @@ public class ProductServiceTests {
 		Assertions.assertEquals(result.getId(), product.getId());
 	}
 	
+	@Test
+	public void insertShouldThrowInvalidRequestExceptionWhenCategoryDoesNotExist() {
+		
+		Mockito.when(categoryRepository.findAllById(any())).thenReturn(List.of());
+		
+		Assertions.assertThrows(InvalidRequestException.class, () -> {
+			service.insert(productDTO);
+		});
+		Mockito.verify(repository, Mockito.never()).save(any());
+	}
+	
 	@Test
 	public void updateShouldReturnProductDTOWhenIdExists() {
 		
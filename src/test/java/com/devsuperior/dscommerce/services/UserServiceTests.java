@@ -1,5 +1,7 @@
 package com.devsuperior.dscommerce.services;
 
+import static org.mockito.ArgumentMatchers.any;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +23,7 @@ import com.devsuperior.dscommerce.projections.UserDetailsProjection;
 import com.devsuperior.dscommerce.repositories.UserRepository;
 import com.devsuperior.dscommerce.tests.UserDetailsFactory;
 import com.devsuperior.dscommerce.tests.UserFactory;
+import com.devsuperior.dscommerce.util.AuthenticatedUser;
 import com.devsuperior.dscommerce.util.CustomUserUtil;
 
 @ExtendWith(SpringExtension.class)
@@ -93,6 +96,40 @@ public class UserServiceTests {
 		});
 	}
 	
+	@Test
+	public void authenticatedPrincipalShouldReadClaimsWithoutDatabaseWhenTokenHasUserId() {
+		
+		Mockito.when(userUtil.getAuthenticatedUser()).thenReturn(new AuthenticatedUser(1L, existingUsername, List.of("ROLE_CLIENT")));
+		
+		AuthenticatedUser result = service.authenticatedPrincipal();
+		
+		Assertions.assertEquals(result.getId(), 1L);
+		Assertions.assertTrue(result.hasRole("ROLE_CLIENT"));
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	@Test
+	public void authenticatedPrincipalShouldLookUpIdWhenTokenHasNoUserId() {
+		
+		Mockito.when(userUtil.getAuthenticatedUser()).thenReturn(new AuthenticatedUser(null, existingUsername, List.of("ROLE_CLIENT")));
+		
+		AuthenticatedUser result = service.authenticatedPrincipal();
+		
+		Assertions.assertEquals(result.getId(), user.getId());
+	}
+	
+	@Test
+	public void authenticatedReferenceShouldReturnReferenceByTokenUserId() {
+		
+		Mockito.when(userUtil.getAuthenticatedUser()).thenReturn(new AuthenticatedUser(1L, existingUsername, List.of("ROLE_CLIENT")));
+		Mockito.when(repository.getReferenceById(1L)).thenReturn(user);
+		
+		User result = service.authenticatedReference();
+		
+		Assertions.assertSame(result, user);
+		Mockito.verify(repository, Mockito.never()).findByEmail(any());
+	}
+	
 	@Test
 	public void getMeShouldReturnUserDTOWhenUserAuthenticated() {
 	
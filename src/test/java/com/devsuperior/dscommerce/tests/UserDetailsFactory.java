@@ -33,6 +33,7 @@ public class UserDetailsFactory {
 
 class UserDetailsImpl implements UserDetailsProjection {
 	
+	private Long userId;
 	private String username;
 	private String password;
 	private Long roleId;
@@ -48,6 +49,11 @@ class UserDetailsImpl implements UserDetailsProjection {
 		this.authority = authority;
 	}
 
+	@Override
+	public Long getUserId() {
+		return userId;
+	}
+
 	@Override
 	public String getUsername() {
 		return username;
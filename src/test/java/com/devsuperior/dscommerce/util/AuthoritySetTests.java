@@ -0,0 +1,64 @@
+package com.devsuperior.dscommerce.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscommerce.entities.Role;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.tests.UserFactory;
+
+public class AuthoritySetTests {
+
+	@Test
+	public void containsShouldMatchKnownAndUnknownAuthorities() {
+
+		AuthoritySet authorities = AuthoritySet.of(List.of("ROLE_ADMIN", "ROLE_AUDITOR"));
+
+		Assertions.assertTrue(authorities.contains(Authority.ROLE_ADMIN));
+		Assertions.assertTrue(authorities.contains("ROLE_ADMIN"));
+		Assertions.assertTrue(authorities.contains("ROLE_AUDITOR"));
+		Assertions.assertFalse(authorities.contains(Authority.ROLE_CLIENT));
+		Assertions.assertFalse(authorities.contains("ROLE_CLIENT"));
+		Assertions.assertEquals(authorities.names(), Set.of("ROLE_ADMIN", "ROLE_AUDITOR"));
+	}
+
+	@Test
+	public void namesShouldBeImmutable() {
+
+		AuthoritySet authorities = AuthoritySet.of(List.of("ROLE_CLIENT"));
+
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> authorities.names().add("ROLE_ADMIN"));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> authorities.grantedAuthorities().clear());
+	}
+
+	@Test
+	public void userHasRoleShouldReflectRolesAddedAfterFirstCheck() {
+
+		User user = UserFactory.createClientUser();
+
+		Assertions.assertTrue(user.hasRole(Authority.ROLE_CLIENT));
+		Assertions.assertFalse(user.hasRole(Authority.ROLE_ADMIN));
+
+		user.addRole(new Role(2L, "ROLE_ADMIN"));
+
+		Assertions.assertTrue(user.hasRole("ROLE_ADMIN"));
+		Assertions.assertEquals(user.getAuthorities().size(), 2);
+	}
+
+	@Test
+	public void userShouldSerializeAfterAuthoritiesAreResolved() throws IOException {
+
+		User user = UserFactory.createClientUser();
+		user.hasRole(Authority.ROLE_CLIENT);
+
+		try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+			Assertions.assertDoesNotThrow(() -> out.writeObject(user));
+		}
+	}
+}